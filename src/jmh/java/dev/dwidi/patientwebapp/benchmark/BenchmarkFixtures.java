@@ -0,0 +1,36 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Patient patient(long id) {
+        AustralianAddress address = new AustralianAddress();
+        address.setAddress(id + " George Street");
+        address.setSuburb("Sydney");
+        address.setState(AustralianState.NSW);
+        address.setPostcode("2000");
+
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setPid(String.format("%016x", id));
+        patient.setFirstName("John" + id);
+        patient.setLastName("Smith" + id);
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(id % 10_000));
+        patient.setGender(id % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+        patient.setPhoneNumber("0412345678");
+        patient.setAddress(address);
+        patient.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(id));
+        patient.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 9, 0).plusMinutes(id));
+        return patient;
+    }
+}
@@ -0,0 +1,172 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A name search as {@code GET /search?name=} runs it, the first page newest first plus the exact count, with the
+ * pg_trgm GIN indexes from {@code V2__patient_name_trigram_index.sql} and with the plan Postgres chose before them.
+ * The old plan is measured on the same table inside a transaction that has dropped the trigram indexes, which
+ * is rolled back afterwards. Sample mode reports the p50 and p99 latency per search.
+ * <p>
+ * Needs PostgreSQL with pg_trgm. Each {@code rows} size gets its own {@code name_search_bench_<rows>} table
+ * with the columns of {@code patients}, built on first use; 5M rows take a few minutes. Last names come from a
+ * small list, so {@code smith} matches about one patient in 40, while first names are generated and the
+ * {@code pack} fragment matches a few hundred patients in 5M:
+ * <pre>
+ * -Djmh.args="NameSearch -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://localhost:5432/patients"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Wilson", "Anderson", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Thompson", "White", "Harris",
+            "Clark", "Lewis", "Robinson", "Walker", "Young", "Hall", "Allen", "King", "Wright", "Scott",
+            "Nguyen", "Hill", "Green", "Adams", "Baker", "Nelson", "Carter", "Mitchell", "Roberts", "Campbell"
+    };
+
+    // The predicate and order of PatientSpecifications.nameContains and the default search sort
+    private static final String NAME_FILTER =
+            "lower(first_name) LIKE ? ESCAPE '\\' OR lower(last_name) LIKE ? ESCAPE '\\'";
+
+    @Param({"500000", "5000000"})
+    private int rows;
+
+    @Param({"trigram", "sequential"})
+    private String plan;
+
+    @Param({"smith", "pack"})
+    private String name;
+
+    private Connection connection;
+    private PreparedStatement page;
+    private PreparedStatement count;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("spring.datasource.username", "postgres"));
+        properties.setProperty("password", System.getProperty("spring.datasource.password", ""));
+        // As set for the application's pools in application.properties
+        properties.setProperty("options", "-c plan_cache_mode=force_custom_plan");
+        connection = DriverManager.getConnection(
+                System.getProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/patients"), properties);
+        connection.setAutoCommit(false);
+        String table = "name_search_bench_" + rows;
+        createTable(table);
+
+        if ("sequential".equals(plan)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP INDEX " + table + "_first_name_trgm");
+                statement.execute("DROP INDEX " + table + "_last_name_trgm");
+            }
+        }
+
+        page = connection.prepareStatement("SELECT id, pid, first_name, last_name, state, created_at FROM " + table
+                + " WHERE " + NAME_FILTER + " ORDER BY created_at DESC, id DESC LIMIT 10");
+        count = connection.prepareStatement("SELECT count(*) FROM " + table + " WHERE " + NAME_FILTER);
+        for (PreparedStatement statement : new PreparedStatement[]{page, count}) {
+            statement.setString(1, "%" + name + "%");
+            statement.setString(2, "%" + name + "%");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Benchmark
+    public long search() throws SQLException {
+        long checksum = 0;
+        try (ResultSet resultSet = page.executeQuery()) {
+            while (resultSet.next()) {
+                checksum += resultSet.getLong(1);
+            }
+        }
+        try (ResultSet resultSet = count.executeQuery()) {
+            resultSet.next();
+            return checksum + resultSet.getLong(1);
+        }
+    }
+
+    private void createTable(String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+                resultSet.next();
+                if (resultSet.getBoolean(1)) {
+                    connection.commit();
+                    return;
+                }
+            }
+
+            StringBuilder lastNames = new StringBuilder("ARRAY[");
+            for (int i = 0; i < LAST_NAMES.length; i++) {
+                lastNames.append(i > 0 ? ", '" : "'").append(LAST_NAMES[i]).append('\'');
+            }
+            lastNames.append(']');
+
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("""
+                    CREATE TABLE %s
+                    (
+                        id            BIGINT PRIMARY KEY,
+                        pid           VARCHAR(255) NOT NULL,
+                        first_name    VARCHAR(100) NOT NULL,
+                        last_name     VARCHAR(100) NOT NULL,
+                        date_of_birth DATE         NOT NULL,
+                        gender        VARCHAR(10)  NOT NULL,
+                        address       VARCHAR(255) NOT NULL,
+                        suburb        VARCHAR(100) NOT NULL,
+                        state         VARCHAR(3)   NOT NULL,
+                        postcode      VARCHAR(4)   NOT NULL,
+                        phone_number  VARCHAR(15)  NOT NULL,
+                        created_at    TIMESTAMP(6) NOT NULL,
+                        updated_at    TIMESTAMP(6),
+                        version       BIGINT       NOT NULL DEFAULT 0
+                    )""".formatted(table));
+            // First names are 5 to 8 letters out of a to p, hashed from the id
+            statement.execute("""
+                    INSERT INTO %s (id, pid, first_name, last_name, date_of_birth, gender, address, suburb, state,
+                                    postcode, phone_number, created_at, updated_at)
+                    SELECT i,
+                           lpad(to_hex(i), 16, '0'),
+                           initcap(translate(substr(md5(i::text), 1, 5 + i %% 4), '0123456789', 'ghijklmnop')),
+                           (%s)[1 + (i::bigint * 7919 %% %d)::int],
+                           DATE '1935-01-01' + (i * 31) %% 25000,
+                           CASE WHEN i %% 2 = 0 THEN 'MALE' ELSE 'FEMALE' END,
+                           i || ' George Street',
+                           'Sydney',
+                           (ARRAY['NSW', 'VIC', 'QLD', 'WA', 'SA', 'TAS', 'ACT', 'NT'])[1 + i %% 8],
+                           '2000',
+                           '0400000000',
+                           TIMESTAMP '2024-01-01' + i * INTERVAL '1 second',
+                           TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'
+                    FROM generate_series(1, %d) AS i""".formatted(table, lastNames, LAST_NAMES.length, rows));
+            statement.execute("CREATE INDEX " + table + "_created_at ON " + table + " (created_at DESC, id DESC)");
+            statement.execute("CREATE INDEX " + table + "_first_name_trgm ON " + table
+                    + " USING gin (lower(first_name) gin_trgm_ops)");
+            statement.execute("CREATE INDEX " + table + "_last_name_trgm ON " + table
+                    + " USING gin (lower(last_name) gin_trgm_ops)");
+            statement.execute("ANALYZE " + table);
+        }
+        // In one transaction, so a build that fails leaves no partial table behind
+        connection.commit();
+    }
+}
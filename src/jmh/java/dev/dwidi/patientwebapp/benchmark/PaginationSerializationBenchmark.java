@@ -0,0 +1,64 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of a page response as the controllers return it. The mapper is built the
+ * same way Spring Boot builds the application's one, so java.time handling matches production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginationSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private BaseResponse<PaginationResponse<PatientResponse>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<PatientResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(BenchmarkFixtures::patient)
+                .map(PatientMapper::toPatientResponse)
+                .toList();
+
+        PaginationResponse<PatientResponse> page = PaginationResponse.<PatientResponse>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(500_000L)
+                .totalPages(500_000 / pageSize)
+                .last(false)
+                .countMode(CountMode.EXACT)
+                .build();
+
+        response = new BaseResponse<>(200, "Patients retrieved successfully", page, "bench");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,85 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.PatientwebappApplication;
+import dev.dwidi.patientwebapp.config.PatientDataSeeder;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one list page as managed entities mapped afterwards, versus projecting straight into the
+ * response DTOs. All three run the same count-free query and differ only in the selection.
+ * Needs PostgreSQL; an empty database is seeded with 10,000 patients first. Compare the
+ * {@code gc.alloc.rate.norm} (bytes per page) reported by the gc profiler:
+ * <pre>
+ * -Djmh.args="PatientListQuery -prof gc -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://localhost:5432/patients"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientListQueryBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private PatientRepository patientRepository;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(PatientwebappApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "patient.seeder.rows=10000",
+                        "patient.query-budget.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        PatientDataSeeder seeder = context.getBean(PatientDataSeeder.class);
+        while (seeder.getState() == PatientDataSeeder.State.PENDING || seeder.getState() == PatientDataSeeder.State.RUNNING) {
+            Thread.sleep(100);
+        }
+
+        patientRepository = context.getBean(PatientRepository.class);
+        pageable = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PatientResponse> entities() {
+        return patientRepository.findSlice(null, pageable, Patient.class)
+                .map(PatientMapper::toPatientResponse)
+                .getContent();
+    }
+
+    @Benchmark
+    public List<PatientResponse> responseProjection() {
+        return patientRepository.findSlice(null, pageable, PatientResponse.class).getContent();
+    }
+
+    @Benchmark
+    public List<PatientSummaryResponse> summaryProjection() {
+        return patientRepository.findSlice(null, pageable, PatientSummaryResponse.class).getContent();
+    }
+}
@@ -0,0 +1,32 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping, run once per row on every read endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientMapperBenchmark {
+
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        patient = BenchmarkFixtures.patient(42);
+    }
+
+    @Benchmark
+    public PatientResponse toPatientResponse() {
+        return PatientMapper.toPatientResponse(patient);
+    }
+}
@@ -0,0 +1,189 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import dev.dwidi.patientwebapp.cache.KnownPidFilter;
+import dev.dwidi.patientwebapp.cache.PatientResponseCache;
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientBatchResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientRequest;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.monitoring.PatientMetrics;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.service.PatientCountService;
+import dev.dwidi.patientwebapp.service.PatientServiceImpl;
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Requests that miss: unknown PIDs on read and delete, and a batch item rejected for its postcode. Logs are
+ * formatted at INFO with the application's pattern and written to a discarding stream, so formatting is
+ * measured but not disk or console I/O. Run with {@code -prof gc} to see allocation per request.
+ * <p>
+ * With {@code knownPidFilter} the filter is loaded with {@code knownPids} generated PIDs, its size and the
+ * false positive rate observed over PIDs that were never added are printed once per trial. The stub
+ * repository answers instantly, a real miss without the filter also pays a database round trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientMissPathBenchmark {
+
+    @Param({"false", "true"})
+    private boolean knownPidFilter;
+
+    @Param({"500000"})
+    private int knownPids;
+
+    private PatientServiceImpl patientService;
+    private List<PatientRequest> invalidBatch;
+    private String unknownPid = "05219ef8b3800002";
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        discardLogs();
+
+        PatientRepository repository = (PatientRepository) Proxy.newProxyInstance(
+                PatientRepository.class.getClassLoader(),
+                new Class<?>[]{PatientRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByPid" -> Optional.empty();
+                    case "existsByPid" -> false;
+                    case "deleteByPid" -> Optional.empty();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        patientService = new PatientServiceImpl(
+                repository,
+                (PatientCountService) (filter, key, mode) -> {
+                    throw new UnsupportedOperationException();
+                },
+                new PatientResponseCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(5)),
+                new PidGenerator(0),
+                new PatientMetrics(new SimpleMeterRegistry()),
+                loadedFilter(),
+                new PatientSearchIndex(null, new SimpleMeterRegistry(), false, 0, 0, 1),
+                new PatientStatistics(null));
+
+        invalidBatch = List.of(new PatientRequest("John", "Smith", LocalDate.of(1980, 5, 17), Gender.MALE,
+                "1 George Street", "Sydney", AustralianState.NSW, "3000", "0412345678"));
+    }
+
+    @Benchmark
+    public BaseResponse<PatientResponse> getPatientByPidMiss() {
+        return patientService.getPatientByPID(unknownPid);
+    }
+
+    @Benchmark
+    public BaseResponse<PatientResponse> deletePatientMiss() {
+        return patientService.deletePatient(unknownPid, null);
+    }
+
+    @Benchmark
+    public BaseResponse<PatientBatchResponse> createPatientsInvalidPostcode() {
+        return patientService.createPatients(invalidBatch);
+    }
+
+    private KnownPidFilter loadedFilter() throws InterruptedException {
+        PidGenerator generator = new PidGenerator(1);
+        List<String> pids = new ArrayList<>(knownPids);
+        for (int i = 0; i < knownPids; i++) {
+            pids.add(generator.generate());
+        }
+
+        KnownPidFilter filter = new KnownPidFilter(pidDataSource(pids), new SimpleMeterRegistry(), knownPidFilter, 0,
+                1_000_000, 0.01, Duration.ZERO, 10_000);
+        if (!knownPidFilter) {
+            return filter;
+        }
+        filter.onApplicationReady();
+        while (!filter.isLoaded()) {
+            Thread.sleep(10);
+        }
+
+        // Covered PIDs from another node that were never added, so every positive answer is a false one
+        int trials = 100_000;
+        int falsePositives = 0;
+        for (long i = 0; i < trials; i++) {
+            if (!filter.isAbsent(String.format("%016x", (i << 22) | (2L << 12)))) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("%nFilter of %d PIDs: false positive rate %.4f over %d unknown PIDs%n",
+                knownPids, (double) falsePositives / trials, trials);
+        return filter;
+    }
+
+    // Serves SELECT pid FROM patients from a list, through just the JDBC calls the filter makes
+    private static DataSource pidDataSource(List<String> pids) {
+        Iterator<String> rows = pids.iterator();
+        String[] current = new String[1];
+        ResultSet resultSet = proxy(ResultSet.class, (method, args) -> switch (method) {
+            case "next" -> {
+                boolean hasNext = rows.hasNext();
+                current[0] = hasNext ? rows.next() : null;
+                yield hasNext;
+            }
+            case "getString" -> current[0];
+            default -> null;
+        });
+        PreparedStatement statement = proxy(PreparedStatement.class,
+                (method, args) -> "executeQuery".equals(method) ? resultSet : null);
+        Connection connection = proxy(Connection.class,
+                (method, args) -> "prepareStatement".equals(method) ? statement : null);
+        return proxy(DataSource.class, (method, args) -> "getConnection".equals(method) ? connection : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.apply(method.getName(), args));
+    }
+
+    private static void discardLogs() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%X{requestId:-}] %t --- %logger{39} : %m%n%ex");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+    }
+}
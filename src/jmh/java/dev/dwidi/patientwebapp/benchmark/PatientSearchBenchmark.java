@@ -0,0 +1,98 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.PatientwebappApplication;
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.config.PatientDataSeeder;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.service.PaginationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One search page through {@link PaginationService} answered by the JPA path versus the in-memory
+ * {@link PatientSearchIndex}, for the filters the index supports, with the exact count the search page
+ * defaults to. Summaries come from the index alone, full patients add a primary key lookup for the page.
+ * Needs PostgreSQL; an empty database is seeded with 100,000 patients first:
+ * <pre>
+ * -Djmh.args="PatientSearch -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://localhost:5432/patients"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientSearchBenchmark {
+
+    @Param({"false", "true"})
+    private boolean searchIndex;
+
+    @Param({"none", "name", "state", "dateRange"})
+    private String filter;
+
+    private ConfigurableApplicationContext context;
+    private PaginationService paginationService;
+    private PaginationRequest request;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(PatientwebappApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "patient.query-budget.enabled=false",
+                        "logging.level.root=WARN")
+                // Arguments, as application.properties would override default properties
+                .run("--patient.seeder.rows=100000", "--patient.search-index.enabled=" + searchIndex);
+
+        PatientDataSeeder seeder = context.getBean(PatientDataSeeder.class);
+        PatientSearchIndex index = context.getBean(PatientSearchIndex.class);
+        while (seeder.getState() == PatientDataSeeder.State.PENDING || seeder.getState() == PatientDataSeeder.State.RUNNING
+                || searchIndex && !index.isLoaded()) {
+            Thread.sleep(100);
+        }
+
+        paginationService = context.getBean(PaginationService.class);
+        request = PaginationRequest.builder()
+                .page(0)
+                .size(20)
+                .countMode(CountMode.EXACT)
+                .build();
+        switch (filter) {
+            case "name" -> request.setName("mit");
+            case "state" -> request.setState(AustralianState.TAS);
+            case "dateRange" -> {
+                request.setStartDate(LocalDate.of(2024, 1, 10));
+                request.setEndDate(LocalDate.of(2024, 1, 12));
+            }
+            default -> {
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BaseResponse<PaginationResponse<PatientSummaryResponse>> summaries() {
+        return paginationService.getPatientSummariesByPage(request);
+    }
+
+    @Benchmark
+    public BaseResponse<PaginationResponse<PatientResponse>> patients() {
+        return paginationService.getPatientsByPage(request);
+    }
+}
@@ -0,0 +1,108 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Cost of {@code GET /stats} without HTTP: reading the counts when nothing changed since the last read, and
+ * when a write came in between, which rebuilds the response. The counts are loaded through a stub
+ * {@link DataSource} shaped like 5M patients born over 90 years and created over a year, no database is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientStatsBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final int BIRTH_DATES = 90 * 365;
+    private static final int CREATED_DATES = 365;
+
+    private PatientStatistics statistics;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        statistics = new PatientStatistics(statsDataSource());
+        statistics.refresh();
+
+        AustralianAddress address = new AustralianAddress();
+        address.setState(AustralianState.QLD);
+        patient = new Patient();
+        patient.setAddress(address);
+        patient.setGender(Gender.FEMALE);
+        patient.setDateOfBirth(TODAY.minusYears(40));
+        patient.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public PatientStatsResponse unchanged() {
+        return statistics.stats();
+    }
+
+    @Benchmark
+    public PatientStatsResponse afterWrite() {
+        try (PatientStatistics.Write write = statistics.beginWrite()) {
+            write.created(patient);
+        }
+        return statistics.stats();
+    }
+
+    // Serves the statistics query from generated groups, through just the JDBC calls the load makes
+    private static DataSource statsDataSource() {
+        AustralianState[] states = AustralianState.values();
+        Gender[] genders = Gender.values();
+        int stateRows = states.length;
+        int genderRows = stateRows + genders.length;
+        int birthRows = genderRows + BIRTH_DATES;
+        int rows = birthRows + CREATED_DATES + 1;
+
+        int[] row = {-1};
+        ResultSet resultSet = proxy(ResultSet.class, (method, args) -> {
+            int i = row[0];
+            return switch (method) {
+                case "next" -> ++row[0] < rows;
+                case "getInt" -> i < stateRows ? 0b0111 : i < genderRows ? 0b1011 : i < birthRows ? 0b1101
+                        : i < rows - 1 ? 0b1110 : 0b1111;
+                case "getString" -> (int) args[0] == 2 ? states[i].name() : genders[i - stateRows].name();
+                case "getObject" -> (int) args[0] == 4 ? TODAY.minusDays(i - genderRows)
+                        : TODAY.minusDays(i - birthRows);
+                case "getLong" -> i < stateRows ? 5_000_000L / stateRows : i < genderRows ? 5_000_000L / genders.length
+                        : i < birthRows ? 5_000_000L / BIRTH_DATES : i < rows - 1 ? 5_000_000L / CREATED_DATES
+                        : 5_000_000L;
+                default -> null;
+            };
+        });
+        Statement statement = proxy(Statement.class, (method, args) -> switch (method) {
+            case "execute" -> true;
+            case "executeQuery" -> resultSet;
+            default -> null;
+        });
+        Connection connection = proxy(Connection.class,
+                (method, args) -> "createStatement".equals(method) ? statement : null);
+        return proxy(DataSource.class, (method, args) -> "getConnection".equals(method) ? connection : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.apply(method.getName(), args));
+    }
+}
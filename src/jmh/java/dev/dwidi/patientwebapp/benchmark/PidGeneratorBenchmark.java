@@ -0,0 +1,44 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PID generation throughput, single-threaded and with every core contending on the same generator.
+ * The UUID variant is the scheme {@link PidGenerator} replaced.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PidGeneratorBenchmark {
+
+    private PidGenerator pidGenerator;
+
+    @Setup
+    public void setUp() {
+        pidGenerator = new PidGenerator(1);
+    }
+
+    @Benchmark
+    public String generate() {
+        return pidGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateContended() {
+        return pidGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    }
+}
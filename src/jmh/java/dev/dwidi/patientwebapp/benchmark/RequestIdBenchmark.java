@@ -0,0 +1,42 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request id generation, once per request, against {@link UUID#randomUUID()} which used to be called for
+ * every response the API built.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestIdBenchmark {
+
+    @Benchmark
+    public String newRequestId() {
+        return RequestIdUtils.newRequestId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String newRequestIdContended() {
+        return RequestIdUtils.newRequestId();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+}
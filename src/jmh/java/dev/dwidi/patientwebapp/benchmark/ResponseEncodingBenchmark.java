@@ -0,0 +1,86 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.dwidi.patientwebapp.converter.ColumnarJsonHttpMessageConverter;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and encoding time for one page of patients, as regular or columnar JSON and with or
+ * without gzip as applied by {@code server.compression}. The encoded size of each combination is printed
+ * once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    public enum Format { JSON, COLUMNAR }
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"JSON", "COLUMNAR"})
+    private Format format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private BaseResponse<PaginationResponse<PatientResponse>> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        objectMapper = format == Format.COLUMNAR
+                ? new ColumnarJsonHttpMessageConverter(json).getObjectMapper()
+                : json;
+
+        List<PatientResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(BenchmarkFixtures::patient)
+                .map(PatientMapper::toPatientResponse)
+                .toList();
+
+        PaginationResponse<PatientResponse> page = PaginationResponse.<PatientResponse>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(500_000L)
+                .totalPages(500_000 / pageSize)
+                .last(false)
+                .countMode(CountMode.EXACT)
+                .build();
+
+        response = new BaseResponse<>(200, "Patients retrieved successfully", page, "bench");
+
+        System.out.printf("%n%s page of %d, gzip=%s: %d bytes%n", format, pageSize, gzip, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, response);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * A broad search with an exact count on the search index, swept over {@code patient.search-index.parallelism}.
+ * The count scans every row in range, which the index splits into segments counted on a fork/join pool;
+ * parallelism 1 is the single-threaded scan. Throughput only scales up to the cores JMH's JVM can use:
+ * <pre>
+ * -Djmh.args="SearchIndexParallelism -p parallelism=1,2,4,8"
+ * </pre>
+ * The index is loaded through a stub {@link DataSource}, no database is needed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchIndexParallelismBenchmark {
+
+    private static final String[] FIRST_NAMES = {"James", "Emma", "Olivia", "John", "Mia", "David", "Sarah", "Paul"};
+    private static final String[] LAST_NAMES = {"Smith", "Brown", "Lee", "Mitchell", "Young", "Wilson", "King"};
+    private static final AustralianState[] STATES = AustralianState.values();
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"2000000"})
+    private int rows;
+
+    // A single state matches 1 in 8 rows, a name fragment about 2 in 7
+    @Param({"state", "name"})
+    private String filter;
+
+    private PatientSearchIndex index;
+    private PatientSearchIndex.Query query;
+
+    @Setup
+    public void setUp() {
+        index = new PatientSearchIndex(patientDataSource(rows), new SimpleMeterRegistry(), true, rows, 10_000,
+                parallelism);
+        index.refresh();
+
+        PatientSearchIndex.Query.QueryBuilder builder = PatientSearchIndex.Query.builder()
+                .offset(40)
+                .limit(20)
+                .count(true);
+        query = ("name".equals(filter) ? builder.name("mit") : builder.state(AustralianState.TAS)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.shutdown();
+    }
+
+    @Benchmark
+    public PatientSearchIndex.Result countedPage() {
+        return index.search(query);
+    }
+
+    // Serves the index's load query from generated rows, through just the JDBC calls the index makes
+    private static DataSource patientDataSource(int rows) {
+        int[] row = {-1};
+        ResultSet resultSet = proxy(ResultSet.class, (method, args) -> {
+            int i = row[0];
+            return switch (method) {
+                case "next" -> ++row[0] < rows;
+                case "getLong" -> (int) args[0] == 1 ? (long) i : 0L;
+                case "getString" -> switch ((int) args[0]) {
+                    case 2 -> PidGenerator.format(0x1000L + i);
+                    case 3 -> FIRST_NAMES[i % FIRST_NAMES.length];
+                    case 4 -> LAST_NAMES[i % LAST_NAMES.length];
+                    default -> STATES[i * 13 % STATES.length].name();
+                };
+                case "getObject" -> START.plusSeconds(i);
+                default -> null;
+            };
+        });
+        PreparedStatement statement = proxy(PreparedStatement.class,
+                (method, args) -> "executeQuery".equals(method) ? resultSet : null);
+        Connection connection = proxy(Connection.class,
+                (method, args) -> "prepareStatement".equals(method) ? statement : null);
+        return proxy(DataSource.class, (method, args) -> "getConnection".equals(method) ? connection : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.apply(method.getName(), args));
+    }
+}
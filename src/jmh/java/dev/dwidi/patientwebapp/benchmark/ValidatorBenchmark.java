@@ -0,0 +1,58 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import dev.dwidi.patientwebapp.exception.DateInvalidFormatException;
+import dev.dwidi.patientwebapp.exception.InvalidPostcodeException;
+import dev.dwidi.patientwebapp.utils.DateValidator;
+import dev.dwidi.patientwebapp.utils.PostCodeValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request validators on both the accepting and the rejecting path; rejections include the cost of
+ * building the exception.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    private String validPostcode = "2000";
+    private String invalidPostcode = "9999";
+    private String state = "NSW";
+    private String validDate = "2024-01-31";
+    private String invalidDate = "31/01/2024";
+
+    @Benchmark
+    public void validatePostcode() {
+        PostCodeValidator.validatePostcode(validPostcode, state);
+    }
+
+    @Benchmark
+    public Object validatePostcodeRejected() {
+        try {
+            PostCodeValidator.validatePostcode(invalidPostcode, state);
+            return null;
+        } catch (InvalidPostcodeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void validateDate() {
+        DateValidator.validate(validDate);
+    }
+
+    @Benchmark
+    public Object validateDateRejected() {
+        try {
+            DateValidator.validate(invalidDate);
+            return null;
+        } catch (DateInvalidFormatException e) {
+            return e;
+        }
+    }
+}
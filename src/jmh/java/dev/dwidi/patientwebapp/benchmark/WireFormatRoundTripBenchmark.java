@@ -0,0 +1,92 @@
+package dev.dwidi.patientwebapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Encode and decode time for one page of patients as JSON, CBOR and Smile, using mappers configured like
+ * the ones behind the negotiated converters. The encoded size of each format is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatRoundTripBenchmark {
+
+    public enum Format { JSON, CBOR, SMILE }
+
+    private static final TypeReference<BaseResponse<PaginationResponse<PatientResponse>>> PAGE_TYPE =
+            new TypeReference<>() {
+            };
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private Format format;
+
+    private ObjectMapper objectMapper;
+    private BaseResponse<PaginationResponse<PatientResponse>> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case JSON -> new JsonFactory();
+            case CBOR -> new CBORFactory();
+            case SMILE -> new SmileFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<PatientResponse> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(BenchmarkFixtures::patient)
+                .map(PatientMapper::toPatientResponse)
+                .toList();
+
+        PaginationResponse<PatientResponse> page = PaginationResponse.<PatientResponse>builder()
+                .content(content)
+                .page(0)
+                .size(pageSize)
+                .totalElements(500_000L)
+                .totalPages(500_000 / pageSize)
+                .last(false)
+                .countMode(CountMode.EXACT)
+                .build();
+
+        response = new BaseResponse<>(200, "Patients retrieved successfully", page, "bench");
+        encoded = encode();
+
+        System.out.printf("%n%s page of %d: %d bytes%n", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public BaseResponse<PaginationResponse<PatientResponse>> decode() throws IOException {
+        return objectMapper.readValue(encoded, PAGE_TYPE);
+    }
+}
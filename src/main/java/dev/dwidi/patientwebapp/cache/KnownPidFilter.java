@@ -0,0 +1,206 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Bloom filter of every PID in the database, so lookups for PIDs that were never issued are answered
+ * without a round trip.
+ * <p>
+ * The filter is loaded once by streaming the {@code pid} column after startup, and every PID this node
+ * issues is added before it is written. A negative answer is only trusted for PIDs the filter is known to
+ * cover: PIDs issued at least {@code patient.pid-filter.safety-margin} before the load started, which
+ * absorbs clock skew between nodes and transactions still in flight, and PIDs issued by this node since it
+ * started. Newer PIDs from other nodes, PIDs not issued by {@link PidGenerator}, and every PID until the load
+ * has finished, go to the database. Deleted PIDs stay in the filter and cost a round trip like any false
+ * positive.
+ * <p>
+ * A PID is only known to come from this node when {@code patient.pid.node-id} is set: without it every
+ * instance issues PIDs as node 0, so recent PIDs are always looked up.
+ */
+@Component
+@Slf4j
+public class KnownPidFilter {
+
+    private static final String PID_SQL = "SELECT pid FROM patients";
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final Integer nodeId;
+    private final Duration safetyMargin;
+    private final int fetchSize;
+    private final LongSupplier clock;
+    private final long startedAt;
+    private final ScalableBloomFilter filter;
+
+    private final Counter absentLookups;
+    private final Counter possibleLookups;
+    private final Counter uncoveredLookups;
+    private final Counter falsePositives;
+
+    private volatile boolean loaded;
+    private volatile long coveredUntil;
+
+    @Autowired
+    public KnownPidFilter(DataSource dataSource,
+                          MeterRegistry meterRegistry,
+                          @Value("${patient.pid-filter.enabled:true}") boolean enabled,
+                          @Value("${patient.pid.node-id:#{null}}") Integer nodeId,
+                          @Value("${patient.pid-filter.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${patient.pid-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${patient.pid-filter.safety-margin:PT5M}") Duration safetyMargin,
+                          @Value("${patient.pid-filter.fetch-size:10000}") int fetchSize) {
+        this(dataSource, meterRegistry, enabled, nodeId, expectedInsertions, falsePositiveRate, safetyMargin,
+                fetchSize, System::currentTimeMillis);
+    }
+
+    KnownPidFilter(DataSource dataSource, MeterRegistry meterRegistry, boolean enabled, Integer nodeId,
+                   long expectedInsertions, double falsePositiveRate, Duration safetyMargin, int fetchSize,
+                   LongSupplier clock) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.safetyMargin = safetyMargin;
+        this.fetchSize = fetchSize;
+        this.clock = clock;
+        this.startedAt = clock.getAsLong();
+        this.filter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+
+        Gauge.builder("patient.pid.filter.entries", filter, ScalableBloomFilter::size)
+                .description("PIDs held by the known PID filter")
+                .register(meterRegistry);
+        Gauge.builder("patient.pid.filter.memory", filter, ScalableBloomFilter::memoryBytes)
+                .description("Memory used by the known PID filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("patient.pid.filter.expected.false.positive.rate", filter,
+                        ScalableBloomFilter::expectedFalsePositiveProbability)
+                .description("False positive probability estimated from how full the filter is")
+                .register(meterRegistry);
+
+        absentLookups = lookups(meterRegistry, "absent");
+        possibleLookups = lookups(meterRegistry, "possible");
+        uncoveredLookups = lookups(meterRegistry, "uncovered");
+        falsePositives = Counter.builder("patient.pid.filter.false.positives")
+                .description("PIDs the filter could not rule out that turned out not to exist")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("patient.pid.filter.lookups")
+                .description("Known PID filter lookups by answer")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("pid-filter-loader").start(this::load);
+        }
+    }
+
+    /**
+     * Must be called with every PID before it is written, a PID that is missed here is reported as
+     * absent once written.
+     */
+    public void add(String pid) {
+        if (enabled) {
+            filter.add(pid);
+        }
+    }
+
+    /**
+     * {@code true} only when the PID certainly does not exist, {@code false} means it has to be looked up.
+     */
+    public boolean isAbsent(String pid) {
+        if (!enabled) {
+            return false;
+        }
+        if (!covers(pid)) {
+            uncoveredLookups.increment();
+            return false;
+        }
+        if (filter.mightContain(pid)) {
+            possibleLookups.increment();
+            return false;
+        }
+        absentLookups.increment();
+        return true;
+    }
+
+    /**
+     * Reports a PID that was not ruled out by {@link #isAbsent} and then not found, the observed false
+     * positive rate is {@code false.positives / (false.positives + lookups{result=absent})}.
+     */
+    public void recordMiss(String pid) {
+        if (enabled && covers(pid)) {
+            falsePositives.increment();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private boolean covers(String pid) {
+        if (!loaded) {
+            return false;
+        }
+        long id = PidGenerator.parse(pid);
+        if (id < 0) {
+            // Not a generated PID, nodes still running an older version may keep issuing these
+            return false;
+        }
+        long issuedAt = PidGenerator.issuedAt(id);
+        return issuedAt <= coveredUntil
+                || nodeId != null && PidGenerator.nodeIdOf(id) == nodeId && issuedAt >= startedAt;
+    }
+
+    void load() {
+        long scanStartedAt = clock.getAsLong();
+        long startTime = System.nanoTime();
+        // Not read-only, so that the rows come from the primary rather than a lagging replica
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(PID_SQL)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        filter.add(resultSet.getString(1));
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.error("Failed to load the known PID filter, every lookup goes to the database: ", e);
+            return;
+        }
+
+        loaded(scanStartedAt);
+        log.info("Loaded {} PIDs into the known PID filter in {} ms, {} bytes",
+                filter.size(), (System.nanoTime() - startTime) / 1_000_000, filter.memoryBytes());
+    }
+
+    void loaded(long scanStartedAt) {
+        coveredUntil = scanStartedAt - safetyMargin.toMillis();
+        loaded = true;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.dwidi.patientwebapp.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for the name columns of {@link PatientColumns}. Each distinct name is stored once
+ * and rows hold its code, so a name filter is evaluated once per distinct name rather than once per row.
+ * Codes are never reused or removed. Not thread-safe.
+ */
+final class NameDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[1024];
+    private String[] lowerCaseValues = new String[1024];
+    private int size;
+
+    int encode(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            lowerCaseValues = Arrays.copyOf(lowerCaseValues, size * 2);
+        }
+        values[size] = name;
+        lowerCaseValues[size] = name.toLowerCase(Locale.ROOT);
+        codes.put(name, size);
+        return size++;
+    }
+
+    String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * Flags, by code, the names containing {@code term}, which must already be lower case.
+     */
+    boolean[] matching(String term) {
+        boolean[] matches = new boolean[size];
+        for (int code = 0; code < size; code++) {
+            matches[code] = lowerCaseValues[code].contains(term);
+        }
+        return matches;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,358 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.service.PidGenerator;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Column store behind {@link PatientSearchIndex}, one primitive array per searchable field.
+ * <p>
+ * Rows are kept sorted by {@code (createdAt, id)}, the order of the default search, so a date range or
+ * a cursor is a binary search and a page is read by walking the arrays from either end. New patients
+ * almost always sort last and are appended. Deleted rows are flagged in the state column and compacted
+ * away once they make up a quarter of the rows. Not thread-safe.
+ */
+final class PatientColumns {
+
+    private static final byte DELETED = -1;
+    private static final byte NO_STATE = -2;
+    private static final AustralianState[] STATES = AustralianState.values();
+
+    // Rows counted by one fork/join task, large enough that a task outweighs its scheduling
+    static final int SEGMENT_ROWS = 1 << 16;
+
+    private final NameDictionary names = new NameDictionary();
+
+    // PIDs that PidGenerator did not issue, by patient id; the pid column holds -1 for them
+    private final Map<Long, String> legacyPids = new HashMap<>();
+
+    private long[] createdAt;
+    private long[] ids;
+    private long[] pids;
+    private long[] versions;
+    private int[] firstNames;
+    private int[] lastNames;
+    private byte[] states;
+    private int size;
+    private int deleted;
+
+    PatientColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        createdAt = new long[capacity];
+        ids = new long[capacity];
+        pids = new long[capacity];
+        versions = new long[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+        states = new byte[capacity];
+    }
+
+    /**
+     * Inserts a patient or updates its names and state. Rows are matched on {@code (createdAt, id)}, which
+     * never changes, and an update older than the indexed version or for a deleted patient is ignored.
+     */
+    void put(long id, String pid, String firstName, String lastName, AustralianState state,
+             LocalDateTime created, long version) {
+        long micros = toMicros(created);
+        int row = size > 0 && compare(size - 1, micros, id) < 0 ? size : lowerBound(micros, id);
+
+        if (row < size && createdAt[row] == micros && ids[row] == id) {
+            if (states[row] != DELETED && versions[row] <= version) {
+                firstNames[row] = names.encode(firstName);
+                lastNames[row] = names.encode(lastName);
+                states[row] = encodeState(state);
+                versions[row] = version;
+            }
+            return;
+        }
+
+        insertAt(row);
+        createdAt[row] = micros;
+        ids[row] = id;
+        pids[row] = PidGenerator.parse(pid);
+        if (pids[row] < 0) {
+            legacyPids.put(id, pid);
+        }
+        versions[row] = version;
+        firstNames[row] = names.encode(firstName);
+        lastNames[row] = names.encode(lastName);
+        states[row] = encodeState(state);
+    }
+
+    /**
+     * Deletes are rare and only know the PID, so the row is found by scanning the pid column.
+     */
+    boolean remove(String pid) {
+        long parsed = PidGenerator.parse(pid);
+        long id = -1;
+        if (parsed < 0) {
+            for (Map.Entry<Long, String> legacyPid : legacyPids.entrySet()) {
+                if (legacyPid.getValue().equals(pid)) {
+                    id = legacyPid.getKey();
+                    break;
+                }
+            }
+            if (id < 0) {
+                return false;
+            }
+        }
+
+        for (int row = size - 1; row >= 0; row--) {
+            if (parsed >= 0 ? pids[row] == parsed : pids[row] < 0 && ids[row] == id) {
+                if (states[row] == DELETED) {
+                    return false;
+                }
+                states[row] = DELETED;
+                deleted++;
+                if (parsed < 0) {
+                    legacyPids.remove(id);
+                }
+                if (deleted > size / 4) {
+                    compact();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param pool if not null, counts over large ranges are split across its threads
+     */
+    PatientSearchIndex.Result search(PatientSearchIndex.Query query, ForkJoinPool pool) {
+        int from = 0;
+        int to = size;
+
+        if (query.startDate() != null && query.endDate() != null) {
+            // Same bounds as the JPA filter, which ends the range at 23:59:59 of the end date
+            from = lowerBound(toMicros(query.startDate().atStartOfDay()), Long.MIN_VALUE);
+            to = lowerBound(toMicros(query.endDate().atTime(23, 59, 59)) + 1, Long.MIN_VALUE);
+        }
+        if (query.afterCreatedAt() != null) {
+            long micros = toMicros(query.afterCreatedAt());
+            if (query.ascending()) {
+                from = Math.max(from, lowerBound(micros, query.afterId() + 1));
+            } else {
+                to = Math.min(to, lowerBound(micros, query.afterId()));
+            }
+        }
+
+        String name = query.name() != null ? query.name().toLowerCase(Locale.ROOT).trim() : "";
+        boolean[] nameMatches = name.isEmpty() ? null : names.matching(name);
+        int state = query.state() != null ? query.state().ordinal() : NO_STATE;
+
+        long total = -1;
+        boolean count = query.count();
+        if (count && nameMatches == null && query.state() == null && from == 0 && to == size) {
+            total = size - deleted;
+            count = false;
+        }
+
+        if (count && to - from >= 2 * SEGMENT_ROWS) {
+            return searchSegments(query, from, to, nameMatches, state, pool);
+        }
+
+        List<PatientSearchIndex.Hit> hits = new ArrayList<>(Math.min(query.limit(), 128));
+        boolean hasNext = false;
+        long matched = 0;
+        for (int i = 0, rows = Math.max(to - from, 0); i < rows; i++) {
+            int row = query.ascending() ? from + i : to - 1 - i;
+            if (!matches(row, nameMatches, state)) {
+                continue;
+            }
+
+            if (++matched > query.offset()) {
+                if (hits.size() < query.limit()) {
+                    hits.add(hit(row));
+                } else {
+                    hasNext = true;
+                    if (!count) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        return new PatientSearchIndex.Result(hits, hasNext, count ? matched : total);
+    }
+
+    /**
+     * Counting every match is what makes a broad search expensive, so rows {@code [from, to)} are split into
+     * segments counted in parallel on {@code pool}, or in turn without one. Rows are already in sort order, so
+     * the page is then found without a heap or merge: whole segments are skipped up to the offset and the rest
+     * is read in order.
+     */
+    private PatientSearchIndex.Result searchSegments(PatientSearchIndex.Query query, int from, int to,
+                                                     boolean[] nameMatches, int state, ForkJoinPool pool) {
+        int segments = (to - from + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>(pool != null ? segments : 0);
+        long[] matched = new long[segments];
+        for (int segment = 0; segment < segments; segment++) {
+            int segmentFrom = from + segment * SEGMENT_ROWS;
+            int segmentTo = Math.min(segmentFrom + SEGMENT_ROWS, to);
+            if (pool != null) {
+                tasks.add(pool.submit(() -> countMatches(segmentFrom, segmentTo, nameMatches, state)));
+            } else {
+                matched[segment] = countMatches(segmentFrom, segmentTo, nameMatches, state);
+            }
+        }
+
+        long total = 0;
+        for (int segment = 0; segment < segments; segment++) {
+            if (pool != null) {
+                matched[segment] = tasks.get(segment).join();
+            }
+            total += matched[segment];
+        }
+
+        int step = query.ascending() ? 1 : -1;
+        int segment = query.ascending() ? 0 : segments - 1;
+        long skip = query.offset();
+        while (segment >= 0 && segment < segments && matched[segment] <= skip) {
+            skip -= matched[segment];
+            segment += step;
+        }
+
+        List<PatientSearchIndex.Hit> hits = new ArrayList<>(Math.min(query.limit(), 128));
+        if (segment >= 0 && segment < segments) {
+            int segmentFrom = from + segment * SEGMENT_ROWS;
+            int start = query.ascending() ? segmentFrom : Math.min(segmentFrom + SEGMENT_ROWS, to) - 1;
+            for (int row = start; row >= from && row < to && hits.size() < query.limit(); row += step) {
+                if (matches(row, nameMatches, state) && skip-- <= 0) {
+                    hits.add(hit(row));
+                }
+            }
+        }
+
+        return new PatientSearchIndex.Result(hits, total > query.offset() + hits.size(), total);
+    }
+
+    private long countMatches(int from, int to, boolean[] nameMatches, int state) {
+        long matched = 0;
+        for (int row = from; row < to; row++) {
+            if (matches(row, nameMatches, state)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private boolean matches(int row, boolean[] nameMatches, int state) {
+        byte rowState = states[row];
+        if (rowState == DELETED || state != NO_STATE && rowState != state) {
+            return false;
+        }
+        return nameMatches == null || nameMatches[firstNames[row]] || nameMatches[lastNames[row]];
+    }
+
+    int size() {
+        return size - deleted;
+    }
+
+    int distinctNames() {
+        return names.size();
+    }
+
+    /**
+     * Allocated column memory, excluding the name dictionary and legacy PIDs.
+     */
+    long memoryBytes() {
+        return (long) ids.length * (4 * Long.BYTES + 2 * Integer.BYTES + 1);
+    }
+
+    private PatientSearchIndex.Hit hit(int row) {
+        return new PatientSearchIndex.Hit(
+                ids[row],
+                pids[row] >= 0 ? PidGenerator.format(pids[row]) : legacyPids.get(ids[row]),
+                names.decode(firstNames[row]),
+                names.decode(lastNames[row]),
+                states[row] >= 0 ? STATES[states[row]] : null);
+    }
+
+    /**
+     * First row at or after {@code (micros, id)}.
+     */
+    private int lowerBound(long micros, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, micros, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int row, long micros, long id) {
+        int byCreatedAt = Long.compare(createdAt[row], micros);
+        return byCreatedAt != 0 ? byCreatedAt : Long.compare(ids[row], id);
+    }
+
+    private void insertAt(int row) {
+        if (size == ids.length) {
+            int capacity = size + (size >> 1);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            pids = Arrays.copyOf(pids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            states = Arrays.copyOf(states, capacity);
+        }
+        if (row < size) {
+            int moved = size - row;
+            System.arraycopy(createdAt, row, createdAt, row + 1, moved);
+            System.arraycopy(ids, row, ids, row + 1, moved);
+            System.arraycopy(pids, row, pids, row + 1, moved);
+            System.arraycopy(versions, row, versions, row + 1, moved);
+            System.arraycopy(firstNames, row, firstNames, row + 1, moved);
+            System.arraycopy(lastNames, row, lastNames, row + 1, moved);
+            System.arraycopy(states, row, states, row + 1, moved);
+        }
+        size++;
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int row = 0; row < size; row++) {
+            if (states[row] == DELETED) {
+                continue;
+            }
+            createdAt[live] = createdAt[row];
+            ids[live] = ids[row];
+            pids[live] = pids[row];
+            versions[live] = versions[row];
+            firstNames[live] = firstNames[row];
+            lastNames[live] = lastNames[row];
+            states[live] = states[row];
+            live++;
+        }
+        size = live;
+        deleted = 0;
+    }
+
+    private static byte encodeState(AustralianState state) {
+        return state != null ? (byte) state.ordinal() : NO_STATE;
+    }
+
+    /**
+     * Postgres keeps timestamps to the microsecond and rounds on the way in, so an entity's
+     * {@code createdAt} is rounded the same way to match the row it was saved as.
+     */
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + (dateTime.getNano() + 500) / 1_000;
+    }
+}
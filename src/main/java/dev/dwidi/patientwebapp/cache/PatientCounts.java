@@ -0,0 +1,137 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.repository.PatientFacets;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Counters behind {@link PatientStatistics}. Ages change with the calendar rather than with writes, so
+ * patients are counted by date of birth and the age bands are summed from those counts once per day,
+ * then kept up to date by every change until the day rolls over. Not thread-safe.
+ */
+final class PatientCounts {
+
+    static final String[] AGE_BANDS = {"0-17", "18-29", "30-44", "45-64", "65-79", "80+"};
+    private static final int[] AGE_BAND_MIN_AGES = {0, 18, 30, 45, 65, 80};
+
+    private static final AustralianState[] STATES = AustralianState.values();
+    private static final Gender[] GENDERS = Gender.values();
+
+    private long total;
+    private final long[] byState = new long[STATES.length];
+    private final long[] byGender = new long[GENDERS.length];
+    private final Map<LocalDate, Long> byDateOfBirth = new HashMap<>();
+    private final NavigableMap<LocalDate, Long> byCreatedDate = new TreeMap<>();
+
+    // Counts by age band as of bandsAsOf, null until first read
+    private final long[] byAgeBand = new long[AGE_BANDS.length];
+    private final LocalDate[] latestBirthByBand = new LocalDate[AGE_BANDS.length];
+    private LocalDate bandsAsOf;
+
+    /**
+     * Counts a patient in, or out with a negative {@code delta}.
+     */
+    void add(PatientFacets facets, long delta) {
+        total += delta;
+        addState(facets.state(), delta);
+        addGender(facets.gender(), delta);
+        addDateOfBirth(facets.dateOfBirth(), delta);
+        addCreatedDate(facets.createdAt() != null ? facets.createdAt().toLocalDate() : null, delta);
+    }
+
+    void addTotal(long delta) {
+        total += delta;
+    }
+
+    void addState(AustralianState state, long delta) {
+        if (state != null) {
+            byState[state.ordinal()] += delta;
+        }
+    }
+
+    void addGender(Gender gender, long delta) {
+        if (gender != null) {
+            byGender[gender.ordinal()] += delta;
+        }
+    }
+
+    void addDateOfBirth(LocalDate dateOfBirth, long delta) {
+        if (dateOfBirth == null) {
+            return;
+        }
+        merge(byDateOfBirth, dateOfBirth, delta);
+        if (bandsAsOf != null) {
+            byAgeBand[ageBand(dateOfBirth)] += delta;
+        }
+    }
+
+    void addCreatedDate(LocalDate createdDate, long delta) {
+        if (createdDate != null) {
+            merge(byCreatedDate, createdDate, delta);
+        }
+    }
+
+    PatientStatsResponse toResponse(LocalDate today) {
+        if (!today.equals(bandsAsOf)) {
+            countAgeBands(today);
+        }
+
+        Map<AustralianState, Long> states = new EnumMap<>(AustralianState.class);
+        for (AustralianState state : STATES) {
+            states.put(state, byState[state.ordinal()]);
+        }
+        Map<Gender, Long> genders = new EnumMap<>(Gender.class);
+        for (Gender gender : GENDERS) {
+            genders.put(gender, byGender[gender.ordinal()]);
+        }
+        Map<String, Long> ageBands = new LinkedHashMap<>();
+        for (int band = 0; band < AGE_BANDS.length; band++) {
+            ageBands.put(AGE_BANDS[band], byAgeBand[band]);
+        }
+
+        return PatientStatsResponse.builder()
+                .total(total)
+                .byState(Collections.unmodifiableMap(states))
+                .byGender(Collections.unmodifiableMap(genders))
+                .byAgeBand(Collections.unmodifiableMap(ageBands))
+                .byCreatedDate(Collections.unmodifiableMap(new TreeMap<>(byCreatedDate)))
+                .asOf(today)
+                .build();
+    }
+
+    private void countAgeBands(LocalDate today) {
+        bandsAsOf = today;
+        for (int band = 0; band < AGE_BANDS.length; band++) {
+            latestBirthByBand[band] = today.minusYears(AGE_BAND_MIN_AGES[band]);
+            byAgeBand[band] = 0;
+        }
+        byDateOfBirth.forEach((dateOfBirth, count) -> byAgeBand[ageBand(dateOfBirth)] += count);
+    }
+
+    /**
+     * Oldest band the patient has reached as of {@code bandsAsOf}. Dates of birth in the future fall in the
+     * youngest band.
+     */
+    private int ageBand(LocalDate dateOfBirth) {
+        for (int band = AGE_BANDS.length - 1; band > 0; band--) {
+            if (!dateOfBirth.isAfter(latestBirthByBand[band])) {
+                return band;
+            }
+        }
+        return 0;
+    }
+
+    private static void merge(Map<LocalDate, Long> counts, LocalDate date, long delta) {
+        counts.merge(date, delta, (count, change) -> count + change != 0 ? count + change : null);
+    }
+}
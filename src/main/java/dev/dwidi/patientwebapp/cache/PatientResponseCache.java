@@ -0,0 +1,50 @@
+package dev.dwidi.patientwebapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of mapped patients keyed by PID.
+ * Hit, miss and eviction counts are published under the {@code cache.*} meters with {@code cache=patientByPid}.
+ */
+@Component
+public class PatientResponseCache {
+
+    private final Cache<String, PatientResponse> cache;
+
+    public PatientResponseCache(MeterRegistry meterRegistry,
+                                @Value("${patient.cache.maximum-size:10000}") long maximumSize,
+                                @Value("${patient.cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "patientByPid");
+    }
+
+    /**
+     * Returns the cached patient or loads it with {@code loader}. Loading is atomic per PID, so a
+     * concurrent {@link #put} from a write cannot be overwritten by a stale load. A {@code null}
+     * result from the loader is not cached.
+     */
+    public PatientResponse get(String pid, Function<String, PatientResponse> loader) {
+        return cache.get(pid, loader);
+    }
+
+    public void put(PatientResponse patient) {
+        cache.put(patient.getPid(), patient);
+    }
+
+    public void invalidate(String pid) {
+        cache.invalidate(pid);
+    }
+}
@@ -0,0 +1,297 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory copy of the searchable patient columns, so that paginated searches sorted by
+ * {@code createdAt} are answered without querying the database.
+ * <p>
+ * Names are dictionary encoded, the state is stored as its ordinal and {@code createdAt} as epoch
+ * microseconds, about 41 bytes per patient plus the distinct names. The index is loaded by streaming the
+ * table after startup, and the service write path keeps it in sync through {@link #put} and
+ * {@link #remove}; writes made during a load are replayed on top of it. Writes that bypass this node,
+ * such as those of other instances, are not seen until the next {@link #refresh()}, so the index should
+ * only be enabled where this node is the only writer. It is off by default.
+ */
+@Component
+@Slf4j
+public class PatientSearchIndex {
+
+    private static final String PATIENT_SQL = """
+            SELECT id, pid, first_name, last_name, state, created_at, version
+            FROM patients
+            ORDER BY created_at, id
+            """;
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final int initialCapacity;
+    private final int fetchSize;
+
+    // Null when searches run on the calling thread only
+    private final ForkJoinPool pool;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock; pending is only non-null while a load is in progress
+    private PatientColumns columns;
+    private List<Consumer<PatientColumns>> pending;
+
+    private volatile boolean loaded;
+
+    public PatientSearchIndex(DataSource dataSource,
+                              MeterRegistry meterRegistry,
+                              @Value("${patient.search-index.enabled:false}") boolean enabled,
+                              @Value("${patient.search-index.initial-capacity:1000000}") int initialCapacity,
+                              @Value("${patient.search-index.fetch-size:10000}") int fetchSize,
+                              @Value("${patient.search-index.parallelism:0}") int parallelism) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.initialCapacity = initialCapacity;
+        this.fetchSize = fetchSize;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = enabled && threads > 1 ? new ForkJoinPool(threads) : null;
+
+        if (enabled) {
+            gauge(meterRegistry, "patient.search.index.rows", "Patients held by the search index",
+                    PatientColumns::size);
+            gauge(meterRegistry, "patient.search.index.names", "Distinct names in the search index dictionary",
+                    PatientColumns::distinctNames);
+            Gauge.builder("patient.search.index.memory", this, index -> index.read(PatientColumns::memoryBytes))
+                    .description("Memory allocated for the search index columns")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Stops the count threads once running counts have finished, so that closed contexts do not leave them behind.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String description,
+                       ToDoubleFunction<PatientColumns> value) {
+        Gauge.builder(name, this, index -> index.read(value))
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Filter, sort direction and window of one search, mirroring the fields of a pagination request.
+     * The date range only applies when both dates are set.
+     *
+     * @param afterCreatedAt if not null, only rows strictly after {@code (afterCreatedAt, afterId)} in
+     *                       the sort direction are returned
+     * @param count          whether the total number of matches is needed, which requires a full scan
+     */
+    @Builder
+    public record Query(String name,
+                        AustralianState state,
+                        LocalDate startDate,
+                        LocalDate endDate,
+                        boolean ascending,
+                        LocalDateTime afterCreatedAt,
+                        Long afterId,
+                        int offset,
+                        int limit,
+                        boolean count) {
+    }
+
+    public record Hit(long id, String pid, String firstName, String lastName, AustralianState state) {
+
+        public PatientSummaryResponse toSummary() {
+            return new PatientSummaryResponse(pid, firstName, lastName, state);
+        }
+    }
+
+    /**
+     * @param total number of matches, or -1 when it was not requested
+     */
+    public record Result(List<Hit> hits, boolean hasNext, long total) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("search-index-loader").start(this::load);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Searches the index, which must be loaded. Hits are ordered by {@code (createdAt, id)}. Searches that
+     * count over many rows split the count across {@code patient.search-index.parallelism} threads.
+     */
+    public Result search(Query query) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return columns.search(query, pool);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with every patient after it is created or updated.
+     */
+    public void put(Patient patient) {
+        long version = patient.getVersion() != null ? patient.getVersion() : 0;
+        apply(index -> index.put(patient.getId(), patient.getPid(), patient.getFirstName(), patient.getLastName(),
+                patient.getAddress() != null ? patient.getAddress().getState() : null,
+                patient.getCreatedAt(), version));
+    }
+
+    /**
+     * Must be called with every PID after its patient is deleted.
+     */
+    public void remove(String pid) {
+        apply(index -> index.remove(pid));
+    }
+
+    /**
+     * Rebuilds the index from the database, for writes that did not go through {@link #put} and
+     * {@link #remove}, such as the seeder's {@code COPY}.
+     */
+    public void refresh() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    private void apply(Consumer<PatientColumns> change) {
+        if (!enabled) {
+            return;
+        }
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            }
+            if (columns != null) {
+                change.accept(columns);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private double read(ToDoubleFunction<PatientColumns> value) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return columns != null ? value.applyAsDouble(columns) : 0;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    synchronized void load() {
+        long startTime = System.nanoTime();
+        beginLoad();
+
+        PatientColumns loading = new PatientColumns(initialCapacity);
+        // Not read-only, so that the rows come from the primary rather than a lagging replica
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(PATIENT_SQL)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String state = resultSet.getString(5);
+                        loading.put(
+                                resultSet.getLong(1),
+                                resultSet.getString(2),
+                                resultSet.getString(3),
+                                resultSet.getString(4),
+                                state != null ? AustralianState.valueOf(state) : null,
+                                resultSet.getObject(6, LocalDateTime.class),
+                                resultSet.getLong(7));
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.error("Failed to load the patient search index, searches go to the database: ", e);
+            finishLoad(null);
+            return;
+        }
+
+        finishLoad(loading);
+        log.info("Loaded {} patients into the search index in {} ms, {} distinct names",
+                loading.size(), (System.nanoTime() - startTime) / 1_000_000, loading.distinctNames());
+    }
+
+    /**
+     * Starts recording writes, which must happen before the load's snapshot is taken so that no write
+     * committed after the snapshot is missed.
+     */
+    void beginLoad() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replays the writes recorded since {@link #beginLoad()} and swaps in the loaded columns. Replaying a
+     * write the snapshot already contains is harmless, as rows are matched by id and version.
+     *
+     * @param loadedColumns the loaded columns, or null if the load failed and the current columns are kept
+     */
+    void finishLoad(PatientColumns loadedColumns) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (loadedColumns != null) {
+                pending.forEach(change -> change.accept(loadedColumns));
+                columns = loadedColumns;
+                loaded = true;
+            }
+            pending = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
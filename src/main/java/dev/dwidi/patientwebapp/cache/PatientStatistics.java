@@ -0,0 +1,261 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.repository.PatientFacets;
+import dev.dwidi.patientwebapp.repository.UpdatedPatient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Patient counts by state, gender, age band and creation day, kept in memory so that dashboards do not
+ * run a count query per figure.
+ * <p>
+ * The counts are loaded with one aggregate query after startup, and the service write path keeps them in
+ * sync through a {@link Write} around each statement. Unlike the search index, a count cannot tell whether
+ * a change was already in the loaded snapshot, so writes hold a shared lock from their statement until
+ * their change is applied, and a load takes its snapshot between writes. Writes made during a load are
+ * replayed on top of it. Writes that bypass this node are not seen until the next {@link #refresh()}.
+ */
+@Component
+@Slf4j
+public class PatientStatistics {
+
+    private static final String STATS_SQL = """
+            SELECT GROUPING(state, gender, date_of_birth, CAST(created_at AS date)),
+                   state, gender, date_of_birth, CAST(created_at AS date), COUNT(*)
+            FROM patients
+            GROUP BY GROUPING SETS ((state), (gender), (date_of_birth), (CAST(created_at AS date)), ())
+            """;
+
+    // GROUPING() sets the bit of every column a row is not grouped by, the first column being the highest
+    private static final int BY_STATE = 0b0111;
+    private static final int BY_GENDER = 0b1011;
+    private static final int BY_DATE_OF_BIRTH = 0b1101;
+    private static final int BY_CREATED_DATE = 0b1110;
+    private static final int TOTAL = 0b1111;
+
+    private final DataSource dataSource;
+
+    // Held shared by writes from their statement until their change is applied, and exclusively while a
+    // load takes its snapshot
+    private final ReadWriteLock writes = new ReentrantReadWriteLock();
+
+    private final Lock lock = new ReentrantLock();
+
+    // Guarded by lock; pending is only non-null while a load is in progress
+    private PatientCounts counts;
+    private List<Consumer<PatientCounts>> pending;
+
+    // Last response, until the next change or the next day
+    private volatile PatientStatsResponse snapshot;
+
+    private volatile boolean loaded;
+
+    public PatientStatistics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("patient-statistics-loader").start(this::load);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Current counts, with age bands as of today, or null until the counts are loaded. The response is
+     * shared between callers and must not be modified.
+     */
+    public PatientStatsResponse stats() {
+        LocalDate today = LocalDate.now();
+        PatientStatsResponse response = snapshot;
+        if (response != null && today.equals(response.getAsOf())) {
+            return response;
+        }
+
+        lock.lock();
+        try {
+            if (counts == null) {
+                return null;
+            }
+            snapshot = counts.toResponse(today);
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be opened before every patient insert, update or delete, and closed once the statement has
+     * committed and its change has been reported.
+     */
+    public Write beginWrite() {
+        writes.readLock().lock();
+        return new Write();
+    }
+
+    public final class Write implements AutoCloseable {
+
+        private boolean closed;
+
+        private Write() {
+        }
+
+        public void created(Patient patient) {
+            PatientFacets facets = PatientFacets.of(patient);
+            apply(counts -> counts.add(facets, 1));
+        }
+
+        public void updated(UpdatedPatient updatedPatient) {
+            PatientFacets previous = updatedPatient.previous();
+            PatientFacets current = PatientFacets.of(updatedPatient.patient());
+            if (!previous.equals(current)) {
+                apply(counts -> {
+                    counts.add(previous, -1);
+                    counts.add(current, 1);
+                });
+            }
+        }
+
+        public void deleted(PatientFacets facets) {
+            apply(counts -> counts.add(facets, -1));
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                writes.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads the counts from the database, for writes that did not go through a {@link Write}, such as the
+     * seeder's {@code COPY}.
+     */
+    public void refresh() {
+        load();
+    }
+
+    private void apply(Consumer<PatientCounts> change) {
+        lock.lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            }
+            if (counts != null) {
+                change.accept(counts);
+                snapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    synchronized void load() {
+        long startTime = System.nanoTime();
+
+        PatientCounts loading = new PatientCounts();
+        // Not read-only, so that the counts come from the primary rather than a lagging replica
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (Statement statement = connection.createStatement()) {
+                Lock writeLock = writes.writeLock();
+                writeLock.lock();
+                try {
+                    // The first statement of a repeatable read transaction fixes the snapshot of the next
+                    statement.execute("SELECT 1");
+                    beginLoad();
+                } finally {
+                    writeLock.unlock();
+                }
+
+                try (ResultSet resultSet = statement.executeQuery(STATS_SQL)) {
+                    while (resultSet.next()) {
+                        long count = resultSet.getLong(6);
+                        switch (resultSet.getInt(1)) {
+                            case BY_STATE -> loading.addState(enumValue(AustralianState.class,
+                                    resultSet.getString(2)), count);
+                            case BY_GENDER -> loading.addGender(enumValue(Gender.class,
+                                    resultSet.getString(3)), count);
+                            case BY_DATE_OF_BIRTH -> loading.addDateOfBirth(
+                                    resultSet.getObject(4, LocalDate.class), count);
+                            case BY_CREATED_DATE -> loading.addCreatedDate(
+                                    resultSet.getObject(5, LocalDate.class), count);
+                            case TOTAL -> loading.addTotal(count);
+                            default -> throw new IllegalStateException("Unexpected grouping " + resultSet.getInt(1));
+                        }
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.error("Failed to load the patient statistics: ", e);
+            finishLoad(null);
+            return;
+        }
+
+        finishLoad(loading);
+        log.info("Loaded the patient statistics in {} ms", (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    /**
+     * Starts recording changes. Must be called while no write is between its statement and its change.
+     */
+    void beginLoad() {
+        lock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replays the changes recorded since {@link #beginLoad()} and swaps in the loaded counts.
+     *
+     * @param loadedCounts the loaded counts, or null if the load failed and the current counts are kept
+     */
+    void finishLoad(PatientCounts loadedCounts) {
+        lock.lock();
+        try {
+            if (loadedCounts != null) {
+                pending.forEach(change -> change.accept(loadedCounts));
+                counts = loadedCounts;
+                snapshot = null;
+                loaded = true;
+            }
+            pending = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package dev.dwidi.patientwebapp.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that grows instead of degrading once it holds more entries than it was sized for. When the
+ * newest layer is full another one is added with twice the capacity and half the false positive
+ * probability, so the combined probability stays below twice the configured one however large it grows.
+ * <p>
+ * Adds and lookups are lock-free, only adding a layer synchronizes. Entries cannot be removed.
+ */
+final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private volatile Layer[] layers;
+
+    ScalableBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive and the probability in (0, 1)");
+        }
+        this.layers = new Layer[]{new Layer(expectedInsertions, falsePositiveProbability)};
+    }
+
+    void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        while (true) {
+            Layer[] current = layers;
+            // Re-adding a known value must not use up capacity, PIDs are added when issued and again on load
+            if (contains(current, h1, h2)) {
+                return;
+            }
+            Layer last = current[current.length - 1];
+            if (last.reserve()) {
+                last.put(h1, h2);
+                return;
+            }
+            grow(current);
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        return contains(layers, h1, mix(h1 ^ 0x9E3779B97F4A7C15L) | 1);
+    }
+
+    /**
+     * Distinct values added, slightly low because a new value that already tests positive is not counted.
+     */
+    long size() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.count();
+        }
+        return size;
+    }
+
+    long memoryBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += layer.words.length() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Probability that a value never added is reported as present, estimated from how full each layer is.
+     */
+    double expectedFalsePositiveProbability() {
+        double allLayersMiss = 1;
+        for (Layer layer : layers) {
+            allLayersMiss *= 1 - layer.expectedFalsePositiveProbability();
+        }
+        return 1 - allLayersMiss;
+    }
+
+    private static boolean contains(Layer[] layers, long h1, long h2) {
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void grow(Layer[] full) {
+        if (layers == full) {
+            Layer last = full[full.length - 1];
+            Layer[] grown = Arrays.copyOf(full, full.length + 1);
+            grown[full.length] = new Layer(last.capacity * GROWTH, last.falsePositiveProbability * TIGHTENING);
+            layers = grown;
+        }
+    }
+
+    // FNV-1a over the chars, finished with the MurmurHash3 mixer so that similar PIDs spread over all bits
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Layer {
+        private final long capacity;
+        private final double falsePositiveProbability;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        private Layer(long capacity, double falsePositiveProbability) {
+            this.capacity = capacity;
+            this.falsePositiveProbability = falsePositiveProbability;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        }
+
+        private boolean reserve() {
+            return count.getAndUpdate(current -> current < capacity ? current + 1 : current) < capacity;
+        }
+
+        private long count() {
+            return count.get();
+        }
+
+        // Double hashing, bit i is h1 + i * h2 (Kirsch and Mitzenmacher)
+        private void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                if ((words.get(word) & mask) == 0) {
+                    words.getAndAccumulate(word, mask, (a, b) -> a | b);
+                }
+                combined += h2;
+            }
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private double expectedFalsePositiveProbability() {
+            return Math.pow(1 - Math.exp(-hashes * (double) count.get() / bits), hashes);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.dwidi.patientwebapp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Service methods are timed through {@code @Timed}. Controller endpoints ({@code http.server.requests})
+ * and repository calls ({@code spring.data.repository.invocations}) are timed by Spring Boot, and the
+ * percentiles for all three are set in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -1,31 +1,65 @@
 package dev.dwidi.patientwebapp.config;
 
-import dev.dwidi.patientwebapp.entity.Patient;
-import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.cache.KnownPidFilter;
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
 import dev.dwidi.patientwebapp.enums.AustralianState;
 import dev.dwidi.patientwebapp.enums.Gender;
 import dev.dwidi.patientwebapp.repository.PatientRepository;
-import lombok.RequiredArgsConstructor;
+import dev.dwidi.patientwebapp.service.PidGenerator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Seeds an empty database with dummy patients. Rows are generated lazily and streamed to Postgres
+ * with {@code COPY ... FROM STDIN}, bypassing the persistence context, across several connections.
+ * Seeding runs on a background virtual thread once the application is ready, so requests are served
+ * while it is in progress; {@link SeederHealthIndicator} holds the readiness probe until it finishes.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class PatientDataSeeder implements CommandLineRunner {
+public class PatientDataSeeder {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, SKIPPED, FAILED
+    }
+
+    private static final String COPY_SQL = """
+            COPY patients (pid, first_name, last_name, date_of_birth, gender, phone_number,
+                           address, suburb, state, postcode, created_at, updated_at)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // Rows are flushed to the COPY stream whenever the buffer grows past this many characters
+    private static final int FLUSH_THRESHOLD = 1 << 20;
 
     private final PatientRepository patientRepository;
-    private final Random random = new Random();
-    private final AtomicInteger sequenceNumber = new AtomicInteger(1);
+    private final PidGenerator pidGenerator;
+    private final KnownPidFilter knownPidFilter;
+    private final PatientSearchIndex patientSearchIndex;
+    private final PatientStatistics patientStatistics;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final int rowCount;
+    private final int parallelism;
+
+    private volatile State state = State.PENDING;
 
     private final String[] FIRST_NAMES = {
             "James", "John", "Robert", "Michael", "William", "David", "Joseph", "Thomas", "Charles", "Christopher",
@@ -60,10 +94,56 @@ public class PatientDataSeeder implements CommandLineRunner {
             "Parade", "Boulevard", "Crescent", "Grove", "Terrace"
     };
 
-    @Override
-    public void run(String... args) {
-        if (isDatabaseEmpty()) {
-            generateDummyData();
+    public PatientDataSeeder(PatientRepository patientRepository,
+                             PidGenerator pidGenerator,
+                             KnownPidFilter knownPidFilter,
+                             PatientSearchIndex patientSearchIndex,
+                             PatientStatistics patientStatistics,
+                             DataSource dataSource,
+                             @Value("${patient.seeder.enabled:true}") boolean enabled,
+                             @Value("${patient.seeder.rows:500000}") int rowCount,
+                             @Value("${patient.seeder.parallelism:4}") int parallelism) {
+        this.patientRepository = patientRepository;
+        this.pidGenerator = pidGenerator;
+        this.knownPidFilter = knownPidFilter;
+        this.patientSearchIndex = patientSearchIndex;
+        this.patientStatistics = patientStatistics;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.rowCount = rowCount;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Dummy patient data seeding is disabled");
+            state = State.SKIPPED;
+            return;
+        }
+
+        state = State.RUNNING;
+        Thread.ofVirtual().name("patient-seeder").start(this::seed);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private void seed() {
+        try {
+            if (isDatabaseEmpty()) {
+                generateDummyData();
+                // COPY bypasses the write path, so the search index and statistics have to be rebuilt from the table
+                patientSearchIndex.refresh();
+                patientStatistics.refresh();
+                state = State.COMPLETED;
+            } else {
+                state = State.SKIPPED;
+            }
+        } catch (Exception e) {
+            log.error("Error generating dummy patient data: ", e);
+            state = State.FAILED;
         }
     }
 
@@ -71,84 +151,112 @@ public class PatientDataSeeder implements CommandLineRunner {
         return patientRepository.count() == 0;
     }
 
-    private void generateDummyData() {
-        log.info("Starting to generate dummy patient data...");
-        List<Patient> patients = new ArrayList<>();
+    private void generateDummyData() throws Exception {
+        log.info("Starting to generate {} dummy patient records using {} connections...", rowCount, parallelism);
+        long startTime = System.nanoTime();
 
-        sequenceNumber.set(1);
+        List<Future<Long>> partitions = new ArrayList<>(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < parallelism; i++) {
+                int partitionRows = rowCount / parallelism + (i < rowCount % parallelism ? 1 : 0);
+                partitions.add(executor.submit(() -> copyPartition(partitionRows)));
+            }
+        }
 
-        for (int i = 0; i < 500000; i++) {
-            Patient patient = createDummyPatient();
-            patient.setPid(generateUniquePid());
-            patients.add(patient);
+        long inserted = 0;
+        for (Future<Long> partition : partitions) {
+            inserted += partition.get();
+        }
+        log.info("Successfully generated {} dummy patient records in {} ms",
+                inserted, (System.nanoTime() - startTime) / 1_000_000);
+    }
 
-            if (i > 0 && i % 100000 == 0) {
-                patientRepository.saveAll(patients);
-                patients.clear();
-                log.info("Saved batch of 100000 patients, progress: {}/100000", i);
+    private long copyPartition(int rows) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+                for (int i = 0; i < rows; i++) {
+                    appendDummyPatient(buffer);
+                    if (buffer.length() >= FLUSH_THRESHOLD) {
+                        writeToCopy(copyIn, buffer);
+                    }
+                }
+                writeToCopy(copyIn, buffer);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
             }
         }
+    }
 
-        if (!patients.isEmpty()) {
-            patientRepository.saveAll(patients);
-        }
-        log.info("Successfully generated 500000 dummy patient records");
+    private void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws Exception {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
     }
 
-    private String generateUniquePid() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    /**
+     * Appends one CSV row. None of the generated values contain commas or quotes, so no quoting is needed.
+     */
+    private void appendDummyPatient(StringBuilder row) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AustralianState state = getRandomElement(AustralianState.values());
+
+        String pid = pidGenerator.generate();
+        knownPidFilter.add(pid);
+
+        row.append(pid).append(',')
+                .append(getRandomElement(FIRST_NAMES)).append(',')
+                .append(getRandomElement(LAST_NAMES)).append(',')
+                .append(generateRandomDateOfBirth()).append(',')
+                .append(random.nextBoolean() ? Gender.MALE : Gender.FEMALE).append(',')
+                .append(generateRandomPhoneNumber()).append(',')
+                .append(random.nextInt(150) + 1).append(' ')
+                .append(getRandomElement(STREET_NAMES)).append(' ')
+                .append(getRandomElement(STREET_TYPES)).append(',')
+                .append(getRandomElement(SUBURBS)).append(',')
+                .append(state).append(',')
+                .append(generateRandomPostcode(state)).append(',');
+
+        // Random createdAt within the test range, also used as updatedAt
+        int createdAtStart = row.length();
+        row.append("2024-01-");
+        appendTwoDigits(row, random.nextInt(31) + 1);   // day between 1-31
+        row.append(' ');
+        appendTwoDigits(row, random.nextInt(23));       // hour
+        row.append(':');
+        appendTwoDigits(row, random.nextInt(59));       // minute
+        row.append(':');
+        appendTwoDigits(row, random.nextInt(59));       // second
+        String createdAt = row.substring(createdAtStart);
+        row.append(',').append(createdAt).append('\n');
     }
 
-    private Patient createDummyPatient() {
-        Patient patient = new Patient();
-        patient.setFirstName(getRandomElement(FIRST_NAMES));
-        patient.setLastName(getRandomElement(LAST_NAMES));
-        patient.setDateOfBirth(generateRandomDateOfBirth());
-        patient.setGender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE);
-        patient.setPhoneNumber(generateRandomPhoneNumber());
-        patient.setAddress(generateRandomAddress());
-
-        // Set a random createdAt date within your test range
-        LocalDateTime randomCreatedAt = LocalDateTime.of(2024, 1,
-                random.nextInt(31) + 1,  // day between 1-31
-                random.nextInt(23),      // hour
-                random.nextInt(59),      // minute
-                random.nextInt(59)       // second
-        );
-        patient.setCreatedAt(randomCreatedAt);
-
-        return patient;
+    private void appendTwoDigits(StringBuilder row, int value) {
+        if (value < 10) {
+            row.append('0');
+        }
+        row.append(value);
     }
 
     private LocalDate generateRandomDateOfBirth() {
         int minAge = 18;
         int maxAge = 90;
-        int randomAge = random.nextInt(maxAge - minAge + 1) + minAge;
+        int randomAge = ThreadLocalRandom.current().nextInt(maxAge - minAge + 1) + minAge;
 
         return LocalDate.now().minusYears(randomAge)
-                .minusDays(random.nextInt(365));
+                .minusDays(ThreadLocalRandom.current().nextInt(365));
     }
 
     private String generateRandomPhoneNumber() {
-        return String.format("04%08d", random.nextInt(100000000));
-    }
-
-    private AustralianAddress generateRandomAddress() {
-        AustralianAddress address = new AustralianAddress();
-
-        address.setAddress(String.format("%d %s %s",
-                random.nextInt(150) + 1,
-                getRandomElement(STREET_NAMES),
-                getRandomElement(STREET_TYPES)));
-
-        address.setSuburb(getRandomElement(SUBURBS));
-        address.setState(getRandomElement(AustralianState.values()));
-        address.setPostcode(generateRandomPostcode(address.getState()));
-
-        return address;
+        return String.format("04%08d", ThreadLocalRandom.current().nextInt(100000000));
     }
 
     private String generateRandomPostcode(AustralianState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         return switch (state) {
             case NSW -> String.format("%04d", 2000 + random.nextInt(999));  // 2000-2999
             case ACT -> String.format("%04d", 2600 + random.nextInt(18));   // 2600-2618
@@ -162,6 +270,6 @@ public class PatientDataSeeder implements CommandLineRunner {
     }
 
     private <T> T getRandomElement(T[] array) {
-        return array[random.nextInt(array.length)];
+        return array[ThreadLocalRandom.current().nextInt(array.length)];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package dev.dwidi.patientwebapp.config;
+
+import dev.dwidi.patientwebapp.monitoring.QueryBudget;
+import dev.dwidi.patientwebapp.monitoring.QueryBudgetHandlerInterceptor;
+import dev.dwidi.patientwebapp.monitoring.QueryBudgetHibernateListener;
+import dev.dwidi.patientwebapp.monitoring.QueryBudgetProperties;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    private final QueryBudget queryBudget;
+
+    public QueryBudgetConfig(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryBudgetHibernateCustomizer() {
+        QueryBudgetHibernateListener listener = new QueryBudgetHibernateListener(queryBudget);
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, listener);
+            properties.put(AvailableSettings.INTERCEPTOR, listener);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetHandlerInterceptor(queryBudget))
+                .addPathPatterns("/api/v1/**");
+    }
+}
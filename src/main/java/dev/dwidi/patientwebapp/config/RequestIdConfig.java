@@ -0,0 +1,33 @@
+package dev.dwidi.patientwebapp.config;
+
+import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class RequestIdConfig {
+
+    /**
+     * Carries the correlation id over to tasks run on the application task executor, such as the body of
+     * a streamed export. Spring Boot applies the decorator to the executor it auto-configures.
+     */
+    @Bean
+    public TaskDecorator requestIdTaskDecorator() {
+        return task -> {
+            String requestId = MDC.get(RequestIdUtils.MDC_KEY);
+            if (requestId == null) {
+                return task;
+            }
+            return () -> {
+                MDC.put(RequestIdUtils.MDC_KEY, requestId);
+                try {
+                    task.run();
+                } finally {
+                    MDC.remove(RequestIdUtils.MDC_KEY);
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package dev.dwidi.patientwebapp.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} while dummy data is being seeded. It is part of the readiness
+ * group, so the readiness probe only passes once seeding has finished.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeederHealthIndicator implements HealthIndicator {
+
+    private final PatientDataSeeder patientDataSeeder;
+
+    @Override
+    public Health health() {
+        PatientDataSeeder.State state = patientDataSeeder.getState();
+        Health.Builder builder = switch (state) {
+            case PENDING, RUNNING -> Health.outOfService();
+            // A failed seed leaves a usable, if sparse, database so it must not block traffic forever
+            case COMPLETED, SKIPPED, FAILED -> Health.up();
+        };
+        return builder.withDetail("state", state).build();
+    }
+}
@@ -6,4 +6,6 @@ public class ApplicationConstant {
 
     }
     public static final String DATE_PATTERN = "YYYY-MM-DD";
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int BATCH_CHUNK_SIZE = 500;
 }
@@ -3,15 +3,27 @@ package dev.dwidi.patientwebapp.controller;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
 import dev.dwidi.patientwebapp.dto.patient.*;
 import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.enums.ExportFormat;
 import dev.dwidi.patientwebapp.service.PaginationService;
+import dev.dwidi.patientwebapp.service.PatientExportService;
 import dev.dwidi.patientwebapp.service.PatientService;
+import dev.dwidi.patientwebapp.service.PatientStatsService;
+import dev.dwidi.patientwebapp.utils.ETagUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/patient")
@@ -21,6 +33,8 @@ public class PatientController {
 
     private final PatientService patientService;
     private final PaginationService paginationService;
+    private final PatientExportService patientExportService;
+    private final PatientStatsService patientStatsService;
 
     @PostMapping("/create")
     public BaseResponse<PatientResponse> createPatient(@RequestBody PatientRequest patientRequest) {
@@ -28,22 +42,63 @@ public class PatientController {
         return patientService.createPatient(patientRequest);
     }
 
+    @PostMapping("/batch")
+    public BaseResponse<PatientBatchResponse> createPatients(@RequestBody List<PatientRequest> patientRequests) {
+        log.info("Receiving request to create {} patients", patientRequests.size());
+        return patientService.createPatients(patientRequests);
+    }
+
     @PutMapping("/edit")
-    public BaseResponse<PatientResponse> updatePatient(@RequestParam String pid, @RequestBody PatientUpdateRequest patientUpdateRequest) {
+    public ResponseEntity<BaseResponse<PatientResponse>> updatePatient(
+            @RequestParam String pid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody PatientUpdateRequest patientUpdateRequest) {
         log.info("Receiving request to edit patient");
-        return patientService.updatePatient(pid,patientUpdateRequest);
+        return conditionalResponse(
+                patientService.updatePatient(pid, patientUpdateRequest, ETagUtils.parseIfMatch(ifMatch)));
     }
 
     @DeleteMapping("/delete")
-    public BaseResponse<PatientResponse> deletePatient(@RequestParam String pid) {
+    public ResponseEntity<BaseResponse<PatientResponse>> deletePatient(
+            @RequestParam String pid,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Receiving request to delete patient");
-        return patientService.deletePatient(pid);
+        return conditionalResponse(patientService.deletePatient(pid, ETagUtils.parseIfMatch(ifMatch)));
+    }
+
+    @GetMapping("/stats")
+    public BaseResponse<PatientStatsResponse> getStats() {
+        log.info("Receiving request to get patient statistics");
+        return patientStatsService.getStats();
     }
 
     @GetMapping("/{pid}")
-    public BaseResponse<PatientResponse> getPatientByPID(@PathVariable String pid) {
+    public BaseResponse<PatientResponse> getPatientByPID(@PathVariable String pid, WebRequest webRequest) {
         log.info("Receiving request to get patient");
-        return patientService.getPatientByPID(pid);
+        BaseResponse<PatientResponse> response = patientService.getPatientByPID(pid);
+
+        // Sets the ETag header, and answers 304 without writing a body when If-None-Match still matches
+        if (response.getData() != null
+                && webRequest.checkNotModified(ETagUtils.toETag(response.getData().getVersion()))) {
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Failed preconditions are reported with HTTP 412 as well, so conditional clients do not have to read the
+     * body. Everything else keeps HTTP 200 with the outcome in {@code statusCode}.
+     */
+    private ResponseEntity<BaseResponse<PatientResponse>> conditionalResponse(BaseResponse<PatientResponse> response) {
+        if (response.getStatusCode() == HttpStatus.PRECONDITION_FAILED.value()) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (response.getData() != null && response.getData().getVersion() != null) {
+            builder.eTag(ETagUtils.toETag(response.getData().getVersion()));
+        }
+        return builder.body(response);
     }
 
     @GetMapping("/page")
@@ -54,6 +109,15 @@ public class PatientController {
         return patientService.getAllPatients(page, size);
     }
 
+    @GetMapping(value = "/page", params = "countMode")
+    public BaseResponse<PaginationResponse<PatientResponse>> getAllPatients(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam CountMode countMode) {
+        log.info("Receiving request to get patient using pagination with count mode {}", countMode);
+        return patientService.getAllPatients(page, size, countMode);
+    }
+
     @GetMapping("/search")
     public BaseResponse<PaginationResponse<PatientResponse>> getPaginatedPatients(
             @RequestParam(defaultValue = "0") Integer page,
@@ -63,10 +127,12 @@ public class PatientController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false) AustralianState state,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) CountMode countMode) {
 
-        log.info("Receiving pagination request with parameters: page={}, size={}, name={}, state={}, sortBy={}, sortDirection={}",
-                page, size, name, state, sortBy, sortDirection);
+        log.info("Receiving pagination request with parameters: page={}, size={}, name={}, state={}, sortBy={}, sortDirection={}, cursor={}, countMode={}",
+                page, size, name, state, sortBy, sortDirection, cursor, countMode);
 
         PaginationRequest request = PaginationRequest.builder()
                 .page(page)
@@ -77,8 +143,66 @@ public class PatientController {
                 .state(state)
                 .startDate(startDate)
                 .endDate(endDate)
+                .cursor(cursor)
+                .countMode(countMode)
                 .build();
 
         return paginationService.getPatientsByPage(request);
     }
+
+    @GetMapping("/search/summary")
+    public BaseResponse<PaginationResponse<PatientSummaryResponse>> getPaginatedPatientSummaries(
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false, defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) AustralianState state,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) CountMode countMode) {
+
+        log.info("Receiving summary pagination request with parameters: page={}, size={}, name={}, state={}, sortBy={}, sortDirection={}, countMode={}",
+                page, size, name, state, sortBy, sortDirection, countMode);
+
+        PaginationRequest request = PaginationRequest.builder()
+                .page(page)
+                .size(size)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .name(name)
+                .state(state)
+                .startDate(startDate)
+                .endDate(endDate)
+                .countMode(countMode)
+                .build();
+
+        return paginationService.getPatientSummariesByPage(request);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPatients(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) AustralianState state,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        log.info("Receiving export request with parameters: name={}, state={}, startDate={}, endDate={}, format={}",
+                name, state, startDate, endDate, format);
+
+        PaginationRequest request = PaginationRequest.builder()
+                .name(name)
+                .state(state)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        StreamingResponseBody body = patientExportService.exportPatients(request, format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"patients." + format.getFileExtension() + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,116 @@
+package dev.dwidi.patientwebapp.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes responses as JSON, except that the {@code content} of a {@link PaginationResponse} becomes
+ * {@code "fields":[...],"rows":[[...],...]}, so property names are sent once per page instead of once per row.
+ * <p>
+ * Only used when the client asks for {@value #COLUMNAR_JSON_VALUE} explicitly, {@code application/json} and
+ * wildcard {@code Accept} headers keep the regular representation.
+ */
+public class ColumnarJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.patient.columnar+json";
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType(COLUMNAR_JSON_VALUE);
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper.copy().registerModule(new SimpleModule("columnar").setSerializerModifier(
+                new ColumnarContentModifier())));
+        setSupportedMediaTypes(List.of(COLUMNAR_JSON));
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isColumnar(mediaType) && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isColumnar(mediaType) && super.canWrite(type, clazz, mediaType);
+    }
+
+    // A null media type means content negotiation is still listing producible types
+    private boolean isColumnar(MediaType mediaType) {
+        return mediaType != null && COLUMNAR_JSON.equalsTypeAndSubtype(mediaType);
+    }
+
+    private static class ColumnarContentModifier extends BeanSerializerModifier {
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            if (!PaginationResponse.class.isAssignableFrom(beanDesc.getBeanClass())) {
+                return beanProperties;
+            }
+
+            List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties.size());
+            for (BeanPropertyWriter property : beanProperties) {
+                properties.add("content".equals(property.getName()) ? new ColumnarContentWriter(property) : property);
+            }
+            return properties;
+        }
+    }
+
+    private static class ColumnarContentWriter extends BeanPropertyWriter {
+
+        ColumnarContentWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!(get(bean) instanceof List<?> rows)) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+
+            // Columns in the order the row type's own serializer writes them
+            List<PropertyWriter> columns = new ArrayList<>();
+            if (!rows.isEmpty()) {
+                prov.findValueSerializer(rows.get(0).getClass()).properties().forEachRemaining(columns::add);
+            }
+
+            gen.writeArrayFieldStart("fields");
+            for (PropertyWriter column : columns) {
+                gen.writeString(column.getName());
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("rows");
+            for (Object row : rows) {
+                gen.writeStartArray();
+                for (PropertyWriter column : columns) {
+                    column.serializeAsElement(row, gen, prov);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
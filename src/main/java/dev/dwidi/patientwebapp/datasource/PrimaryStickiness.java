@@ -0,0 +1,45 @@
+package dev.dwidi.patientwebapp.datasource;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps reads on the primary for a short window after any read-write transaction commits, so a client
+ * that just created or edited a patient reads its own write even while the replica is lagging. The
+ * window is global rather than per client, the API has no session to key it on.
+ */
+public class PrimaryStickiness implements TransactionExecutionListener {
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile long stickyUntil;
+
+    public PrimaryStickiness(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    PrimaryStickiness(Duration window, LongSupplier nanoClock) {
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.stickyUntil = nanoClock.getAsLong();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            markWrite();
+        }
+    }
+
+    public void markWrite() {
+        stickyUntil = nanoClock.getAsLong() + windowNanos;
+    }
+
+    public boolean isActive() {
+        return nanoClock.getAsLong() - stickyUntil < 0;
+    }
+}
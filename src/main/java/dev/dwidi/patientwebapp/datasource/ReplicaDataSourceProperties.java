@@ -0,0 +1,24 @@
+package dev.dwidi.patientwebapp.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection settings for the read replica. Routing is only enabled when {@code url} is set, pool
+ * settings are bound from {@code patient.datasource.replica.hikari.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "patient.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /** How long read-only transactions stay on the primary after a write commits. */
+    private Duration stickyWindow = Duration.ofSeconds(2);
+}
@@ -0,0 +1,35 @@
+package dev.dwidi.patientwebapp.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Target for read-only connections: the replica, or the primary while {@link PrimaryStickiness} is active.
+ * Read-write connections never get here, they go straight to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final PrimaryStickiness stickiness;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, PrimaryStickiness stickiness) {
+        this.stickiness = stickiness;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(replica);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (stickiness.isActive()) {
+            log.debug("Routing read-only connection to primary after a recent write");
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
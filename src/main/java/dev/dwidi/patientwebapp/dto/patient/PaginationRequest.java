@@ -1,6 +1,7 @@
 package dev.dwidi.patientwebapp.dto.patient;
 
 import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
 import lombok.Builder;
 import lombok.Data;
 
@@ -17,4 +18,6 @@ public class PaginationRequest {
     private AustralianState state;
     private LocalDate startDate;
     private LocalDate endDate;
+    private String cursor;
+    private CountMode countMode;
 }
@@ -1,5 +1,7 @@
 package dev.dwidi.patientwebapp.dto.patient;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.dwidi.patientwebapp.enums.CountMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,11 +13,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginationResponse<T> {
     private List<T> content;
-    private int page;
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean last;
+    private Boolean hasNext;
+    private CountMode countMode;
+    private String nextCursor;
 }
@@ -0,0 +1,20 @@
+package dev.dwidi.patientwebapp.dto.patient;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientBatchItemResult {
+    private int index;
+    private boolean success;
+    private Long id;
+    private String pid;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package dev.dwidi.patientwebapp.dto.patient;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientBatchResponse {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<PatientBatchItemResult> results;
+}
@@ -28,5 +28,6 @@ public class PatientResponse {
     private String phoneNumber;
     private LocalDateTime createdAt;
     private LocalDateTime updateAt;
+    private Long version;
 }
 
@@ -0,0 +1,28 @@
+package dev.dwidi.patientwebapp.dto.patient;
+
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Patient counts for dashboards. Every map holds all of its keys in order, including those counted 0,
+ * except {@code byCreatedDate}, which only holds days on which a current patient was created.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientStatsResponse {
+    private long total;
+    private Map<AustralianState, Long> byState;
+    private Map<Gender, Long> byGender;
+    private Map<String, Long> byAgeBand;
+    private Map<LocalDate, Long> byCreatedDate;
+    private LocalDate asOf;
+}
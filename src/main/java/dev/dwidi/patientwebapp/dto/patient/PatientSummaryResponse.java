@@ -0,0 +1,21 @@
+package dev.dwidi.patientwebapp.dto.patient;
+
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Minimal patient row for grid views.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PatientSummaryResponse {
+    private String pid;
+    private String firstName;
+    private String lastName;
+    private AustralianState state;
+}
@@ -12,18 +12,27 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "patients")
+@Table(
+        name = "patients",
+        indexes = {
+                @Index(name = "idx_patients_state_created_at", columnList = "state, created_at DESC, id DESC"),
+                @Index(name = "idx_patients_created_at", columnList = "created_at DESC, id DESC"),
+                @Index(name = "idx_patients_first_name", columnList = "first_name, id"),
+                @Index(name = "idx_patients_last_name", columnList = "last_name, id"),
+                @Index(name = "idx_patients_date_of_birth", columnList = "date_of_birth, id")
+        }
+)
 @Data
 @EntityListeners(AuditingEntityListener.class)
 @SequenceGenerator(
         name = "patient_id_seq",
         sequenceName = "patient_id_seq",
         initialValue = 1,
-        allocationSize = 1
+        allocationSize = 50
 )
 public class Patient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_id_seq")
     private Long id;
 
     @Column(name = "pid", unique = true, nullable = false)
@@ -56,6 +65,10 @@ public class Patient {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
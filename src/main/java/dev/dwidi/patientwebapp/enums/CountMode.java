@@ -0,0 +1,15 @@
+package dev.dwidi.patientwebapp.enums;
+
+/**
+ * How the total number of matching patients is obtained for a paginated response.
+ */
+public enum CountMode {
+    /** Run a {@code count(*)} for every request. */
+    EXACT,
+    /** Reuse an exact count computed for the same filters within the cache TTL. */
+    CACHED,
+    /** Use the planner's row estimate where possible, falling back to a cached count. */
+    ESTIMATED,
+    /** Skip counting and only report whether a next page exists. */
+    NONE
+}
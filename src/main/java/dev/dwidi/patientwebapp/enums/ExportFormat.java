@@ -0,0 +1,19 @@
+package dev.dwidi.patientwebapp.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Output formats of the patient export endpoint.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    /** One JSON patient object per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Comma-separated values with a header row. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+}
@@ -1,6 +1,6 @@
 package dev.dwidi.patientwebapp.exception;
 
-public class DateInvalidFormatException extends RuntimeException {
+public class DateInvalidFormatException extends StacklessException {
     public DateInvalidFormatException(String message) {
         super(message);
     }
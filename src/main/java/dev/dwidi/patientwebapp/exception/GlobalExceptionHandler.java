@@ -2,8 +2,11 @@ package dev.dwidi.patientwebapp.exception;
 
 import dev.dwidi.patientwebapp.constant.ApplicationConstant;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.monitoring.PatientMetrics;
 import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.event.Level;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -16,14 +19,25 @@ import java.util.Objects;
 
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
-    private void logException(String errorType, String requestId, WebRequest request, Exception ex) {
+    private final PatientMetrics patientMetrics;
+
+    /**
+     * Client errors are logged at DEBUG and counted in {@code patient.api.errors}, so a flood of bad
+     * requests does not turn into a flood of ERROR lines.
+     */
+    private void logException(Level level, String errorType, String requestId, WebRequest request, Exception ex) {
+        if (!log.isEnabledForLevel(level)) {
+            return;
+        }
+
         String requestURI = request.getDescription(false);
         String requestMethod = request.getParameterValues("_method") != null ?
                 Objects.requireNonNull(request.getParameterValues("_method"))[0] : "UNKNOWN";
 
-        log.error("{} - RequestId: {}, URI: {}, Method: {}, Message: {}",
+        log.atLevel(level).log("{} - RequestId: {}, URI: {}, Method: {}, Message: {}",
                 errorType,
                 requestId,
                 requestURI,
@@ -34,8 +48,9 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(PatientNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public BaseResponse<String> handlePatientNotFoundException(PatientNotFoundException ex, WebRequest request) {
-        String requestId = RequestIdUtils.generateRequestId();
-        logException("Patient not found exception", requestId, request, ex);
+        String requestId = RequestIdUtils.currentRequestId();
+        patientMetrics.apiError(ex, HttpStatus.NOT_FOUND);
+        logException(Level.DEBUG, "Patient not found exception", requestId, request, ex);
 
         return new BaseResponse<>(
                 HttpStatus.NOT_FOUND.value(),
@@ -48,8 +63,9 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(FailedGeneratePIDException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public BaseResponse<String> handleFailedGeneratePIDException(FailedGeneratePIDException ex, WebRequest request) {
-        String requestId = RequestIdUtils.generateRequestId();
-        logException("Failed generate PID exception", requestId, request, ex);
+        String requestId = RequestIdUtils.currentRequestId();
+        patientMetrics.apiError(ex, HttpStatus.NOT_FOUND);
+        logException(Level.ERROR, "Failed generate PID exception", requestId, request, ex);
 
         return new BaseResponse<>(
                 HttpStatus.NOT_FOUND.value(),
@@ -62,8 +78,9 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(InvalidPostcodeException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public BaseResponse<String> handleInvalidPostcodeException(InvalidPostcodeException ex, WebRequest request) {
-        String requestId = RequestIdUtils.generateRequestId();
-        logException("Failed generate PID exception", requestId, request, ex);
+        String requestId = RequestIdUtils.currentRequestId();
+        patientMetrics.apiError(ex, HttpStatus.NOT_FOUND);
+        logException(Level.DEBUG, "Invalid postcode exception", requestId, request, ex);
 
         return new BaseResponse<>(
                 HttpStatus.NOT_FOUND.value(),
@@ -76,8 +93,9 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DateInvalidFormatException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public BaseResponse<String> handleDateInvalidFormatException(DateInvalidFormatException ex, WebRequest request) {
-        String requestId = RequestIdUtils.generateRequestId();
-        logException("Date must on format YYYY-MM-DD", requestId, request, ex);
+        String requestId = RequestIdUtils.currentRequestId();
+        patientMetrics.apiError(ex, HttpStatus.NOT_FOUND);
+        logException(Level.DEBUG, "Date must on format YYYY-MM-DD", requestId, request, ex);
 
         return new BaseResponse<>(
                 HttpStatus.NOT_FOUND.value(),
@@ -90,7 +108,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public BaseResponse<String> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
-        String requestId = RequestIdUtils.generateRequestId();
+        String requestId = RequestIdUtils.currentRequestId();
+        patientMetrics.apiError(ex, HttpStatus.BAD_REQUEST);
         String message;
 
         if (ex.getParameter().getParameterType().equals(LocalDate.class)) {
@@ -107,7 +126,7 @@ public class GlobalExceptionHandler {
             );
         }
 
-        log.error("Parameter conversion error: {}", message);
+        log.debug("Parameter conversion error: {}", message);
 
         return new BaseResponse<>(
                 HttpStatus.BAD_REQUEST.value(),
@@ -120,8 +139,9 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public BaseResponse<String> handleGlobalException(Exception ex, WebRequest request) {
-        String requestId = RequestIdUtils.generateRequestId();
-        logException("Unhandled exception", requestId, request, ex);
+        String requestId = RequestIdUtils.currentRequestId();
+        patientMetrics.apiError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        logException(Level.ERROR, "Unhandled exception", requestId, request, ex);
 
         log.error("Stack trace for unhandled exception: ", ex);
         return new BaseResponse<>(
@@ -1,6 +1,6 @@
 package dev.dwidi.patientwebapp.exception;
 
-public class InvalidPostcodeException extends RuntimeException {
+public class InvalidPostcodeException extends StacklessException {
     public InvalidPostcodeException(String message) {
         super(message);
     }
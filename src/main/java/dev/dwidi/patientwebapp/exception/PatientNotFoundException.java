@@ -1,6 +1,6 @@
 package dev.dwidi.patientwebapp.exception;
 
-public class PatientNotFoundException extends RuntimeException {
+public class PatientNotFoundException extends StacklessException {
     public PatientNotFoundException(String message) {
         super(message);
     }
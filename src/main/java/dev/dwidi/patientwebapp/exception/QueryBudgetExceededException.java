@@ -0,0 +1,7 @@
+package dev.dwidi.patientwebapp.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
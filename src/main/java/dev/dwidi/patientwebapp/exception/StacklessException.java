@@ -0,0 +1,12 @@
+package dev.dwidi.patientwebapp.exception;
+
+/**
+ * Base for exceptions that report a client error rather than a bug. They are thrown on every rejected
+ * request and only their message is ever shown, so no stack trace is captured.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
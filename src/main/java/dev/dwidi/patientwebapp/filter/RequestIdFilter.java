@@ -0,0 +1,41 @@
+package dev.dwidi.patientwebapp.filter;
+
+import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Takes the correlation id from an inbound {@value RequestIdUtils#REQUEST_ID_HEADER} header or generates
+ * one, and keeps it in the MDC while the request is handled. Each request runs on its own virtual thread,
+ * so the MDC entry is never seen by another request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(RequestIdUtils.REQUEST_ID_HEADER);
+        if (!RequestIdUtils.isValid(requestId)) {
+            requestId = RequestIdUtils.newRequestId();
+        }
+
+        MDC.put(RequestIdUtils.MDC_KEY, requestId);
+        response.setHeader(RequestIdUtils.REQUEST_ID_HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestIdUtils.MDC_KEY);
+        }
+    }
+}
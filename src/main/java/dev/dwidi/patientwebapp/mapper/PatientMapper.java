@@ -0,0 +1,29 @@
+package dev.dwidi.patientwebapp.mapper;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+
+public class PatientMapper {
+
+    private PatientMapper() {
+    }
+
+    public static PatientResponse toPatientResponse(Patient patient) {
+        return PatientResponse.builder()
+                .id(patient.getId())
+                .pid(patient.getPid())
+                .firstName(patient.getFirstName())
+                .lastName(patient.getLastName())
+                .dateOfBirth(patient.getDateOfBirth())
+                .gender(patient.getGender())
+                .phoneNumber(patient.getPhoneNumber())
+                .address(patient.getAddress().getAddress())
+                .suburb(patient.getAddress().getSuburb())
+                .state(patient.getAddress().getState())
+                .postcode(patient.getAddress().getPostcode())
+                .createdAt(patient.getCreatedAt())
+                .updateAt(patient.getUpdatedAt())
+                .version(patient.getVersion())
+                .build();
+    }
+}
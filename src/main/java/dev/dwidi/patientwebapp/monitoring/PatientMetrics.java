@@ -0,0 +1,47 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for the error branches that are answered with an error body instead of propagating, so they
+ * never show up as an exception tag on the request timers.
+ */
+@Component
+public class PatientMetrics {
+
+    public static final String SERVICE_ERRORS = "patient.service.errors";
+    public static final String API_ERRORS = "patient.api.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    public PatientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Counts a service call that was answered with an error {@code status} in its response body.
+     */
+    public void serviceError(String operation, HttpStatus status) {
+        Counter.builder(SERVICE_ERRORS)
+                .description("Patient service calls answered with an error status")
+                .tag("operation", operation)
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts an exception turned into an error response by the global exception handler.
+     */
+    public void apiError(Exception exception, HttpStatus status) {
+        Counter.builder(API_ERRORS)
+                .description("Exceptions handled by the global exception handler")
+                .tag("exception", exception.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,134 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import dev.dwidi.patientwebapp.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts SQL statements and loaded rows for the request running on the current thread and checks them
+ * against {@link QueryBudgetProperties}. Work outside a tracked request, such as background seeding or
+ * a streamed export body, is not counted.
+ */
+@Component
+@Slf4j
+public class QueryBudget {
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudget(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void begin(String method, String endpoint) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        QueryBudgetProperties.Budget override = properties.getEndpoints().get(endpoint);
+        int maxStatements = override != null && override.getMaxStatements() != null
+                ? override.getMaxStatements() : properties.getMaxStatements();
+        long maxRows = override != null && override.getMaxRows() != null
+                ? override.getMaxRows() : properties.getMaxRows();
+
+        CURRENT.set(new Usage(method, endpoint, maxStatements, maxRows));
+    }
+
+    public void end() {
+        Usage usage = CURRENT.get();
+        if (usage == null) {
+            return;
+        }
+        CURRENT.remove();
+
+        DistributionSummary.builder("patient.query.statements")
+                .description("SQL statements executed per request")
+                .tag("method", usage.method)
+                .tag("uri", usage.endpoint)
+                .register(meterRegistry)
+                .record(usage.statements);
+        DistributionSummary.builder("patient.query.rows")
+                .description("Entity rows loaded per request")
+                .tag("method", usage.method)
+                .tag("uri", usage.endpoint)
+                .register(meterRegistry)
+                .record(usage.rows);
+
+        log.debug("{} {} executed {} statements and loaded {} rows",
+                usage.method, usage.endpoint, usage.statements, usage.rows);
+    }
+
+    void onStatement(String sql) {
+        Usage usage = CURRENT.get();
+        if (usage == null) {
+            return;
+        }
+
+        usage.statements++;
+        if (usage.statements > usage.maxStatements) {
+            exceeded(usage, String.format("%s %s exceeded its budget of %d SQL statements, last: %s",
+                    usage.method, usage.endpoint, usage.maxStatements, sql));
+        }
+    }
+
+    void onRowLoaded() {
+        onRowsLoaded(1);
+    }
+
+    /**
+     * Counts rows read without loading entities, such as DTO projections, which Hibernate does not report.
+     */
+    public void onRowsLoaded(int rows) {
+        Usage usage = CURRENT.get();
+        if (usage == null || rows == 0) {
+            return;
+        }
+
+        usage.rows += rows;
+        if (usage.rows > usage.maxRows) {
+            exceeded(usage, String.format("%s %s exceeded its budget of %d loaded rows",
+                    usage.method, usage.endpoint, usage.maxRows));
+        }
+    }
+
+    private void exceeded(Usage usage, String message) {
+        if (properties.isFailOnExceed()) {
+            throw new QueryBudgetExceededException(message);
+        }
+
+        // Warn and count once per request rather than for every statement past the budget
+        if (!usage.exceeded) {
+            usage.exceeded = true;
+            log.warn(message);
+            Counter.builder("patient.query.budget.exceeded")
+                    .description("Requests that went over their SQL statement or row budget")
+                    .tag("method", usage.method)
+                    .tag("uri", usage.endpoint)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static final class Usage {
+        private final String method;
+        private final String endpoint;
+        private final int maxStatements;
+        private final long maxRows;
+        private int statements;
+        private long rows;
+        private boolean exceeded;
+
+        private Usage(String method, String endpoint, int maxStatements, long maxRows) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.maxStatements = maxStatements;
+            this.maxRows = maxRows;
+        }
+    }
+}
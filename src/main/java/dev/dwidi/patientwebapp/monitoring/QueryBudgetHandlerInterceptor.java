@@ -0,0 +1,35 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a {@link QueryBudget} for each handled request, keyed by the matched request mapping pattern.
+ */
+public class QueryBudgetHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private final QueryBudget queryBudget;
+
+    public QueryBudgetHandlerInterceptor(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        queryBudget.begin(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        queryBudget.end();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        queryBudget.end();
+    }
+}
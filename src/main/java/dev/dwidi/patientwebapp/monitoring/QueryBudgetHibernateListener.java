@@ -0,0 +1,31 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Feeds {@link QueryBudget} from Hibernate: every prepared SQL statement and every loaded entity.
+ * A JDBC batch is prepared once, so it counts as a single statement however many rows it inserts.
+ * DTO projections load no entities, so their rows are reported by the repository that reads them.
+ */
+public class QueryBudgetHibernateListener implements StatementInspector, Interceptor {
+
+    private final QueryBudget queryBudget;
+
+    public QueryBudgetHibernateListener(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        queryBudget.onStatement(sql);
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        queryBudget.onRowLoaded();
+        return false;
+    }
+}
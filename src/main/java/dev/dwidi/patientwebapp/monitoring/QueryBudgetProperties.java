@@ -0,0 +1,34 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import dev.dwidi.patientwebapp.exception.QueryBudgetExceededException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statement and row budget per request. Endpoints are keyed by their request mapping pattern,
+ * e.g. {@code patient.query-budget.endpoints.[/api/v1/patient/batch].max-statements=250}.
+ */
+@Data
+@ConfigurationProperties(prefix = "patient.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+
+    /** Throw {@link QueryBudgetExceededException} instead of logging a warning. Meant for tests. */
+    private boolean failOnExceed = false;
+
+    private int maxStatements = 10;
+
+    private long maxRows = 1000;
+
+    private Map<String, Budget> endpoints = new HashMap<>();
+
+    @Data
+    public static class Budget {
+        private Integer maxStatements;
+        private Long maxRows;
+    }
+}
@@ -0,0 +1,22 @@
+package dev.dwidi.patientwebapp.repository;
+
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of one patient that the patient statistics are counted over.
+ */
+public record PatientFacets(AustralianState state, Gender gender, LocalDate dateOfBirth, LocalDateTime createdAt) {
+
+    public static PatientFacets of(Patient patient) {
+        return new PatientFacets(
+                patient.getAddress() != null ? patient.getAddress().getState() : null,
+                patient.getGender(),
+                patient.getDateOfBirth(),
+                patient.getCreatedAt());
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient>, PatientRepositoryCustom {
     Optional<Patient> findByPid(String pid);
 
     @Query(value = """
@@ -21,4 +21,8 @@ public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpec
     Integer getMaxSequenceForToday(@Param("datePattern") String datePattern);
 
     boolean existsByPid(String pid);
+
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('patients' AS regclass)",
+            nativeQuery = true)
+    Long estimateCount();
 }
@@ -0,0 +1,60 @@
+package dev.dwidi.patientwebapp.repository;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientUpdateRequest;
+import dev.dwidi.patientwebapp.entity.Patient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PatientRepositoryCustom {
+
+    /**
+     * Fetches one page of patients matching {@code spec} without issuing a count query.
+     * One extra row is read to determine whether a next slice exists.
+     *
+     * @param type {@link Patient}, or a DTO projection supported by {@link PatientRepositoryCustomImpl},
+     *             which is selected with a constructor expression instead of hydrating managed entities
+     */
+    <T> Slice<T> findSlice(Specification<Patient> spec, Pageable pageable, Class<T> type);
+
+    /**
+     * Fetches one page of patients matching {@code spec} together with the total count. Like Spring Data,
+     * the count query is skipped when the total can be derived from the page itself.
+     *
+     * @param type as for {@link #findSlice(Specification, Pageable, Class)}
+     */
+    <T> Page<T> findPage(Specification<Patient> spec, Pageable pageable, Class<T> type);
+
+    /**
+     * Streams every patient matching {@code spec} through a server-side cursor reading {@code fetchSize}
+     * rows per round trip. Rows are read-only and detached as they are emitted, so the persistence context
+     * does not grow with the result. Must be called inside a transaction and the stream must be closed.
+     */
+    Stream<Patient> streamAll(Specification<Patient> spec, Sort sort, int fetchSize);
+
+    /**
+     * Applies the non-null fields of {@code request} with one {@code UPDATE ... RETURNING} statement and
+     * returns the updated row, so the patient is neither loaded before nor re-read after the update.
+     * The version is incremented with every update. The row is locked by the same statement to also return
+     * its previous facets, which the patient statistics need to move the patient between counters.
+     *
+     * @param expectedVersions if not null, the update only applies while the patient is still at one of these
+     *                         versions
+     * @return the updated patient, or empty if no patient has this PID or its version differs
+     */
+    Optional<UpdatedPatient> updateByPid(String pid, PatientUpdateRequest request, List<Long> expectedVersions);
+
+    /**
+     * Deletes by PID in a single {@code DELETE ... RETURNING} statement without loading the entity first.
+     *
+     * @param expectedVersions if not null, the patient is only deleted while it is still at one of these versions
+     * @return the facets of the deleted patient, or empty if no patient has this PID or its version differs
+     */
+    Optional<PatientFacets> deleteByPid(String pid, List<Long> expectedVersions);
+}
@@ -0,0 +1,264 @@
+package dev.dwidi.patientwebapp.repository;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientUpdateRequest;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.monitoring.QueryBudget;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+public class PatientRepositoryCustomImpl implements PatientRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final QueryBudget queryBudget;
+
+    public PatientRepositoryCustomImpl(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Slice<T> findSlice(Specification<Patient> spec, Pageable pageable, Class<T> type) {
+        TypedQuery<T> typedQuery = createQuery(spec, pageable.getSort(), type);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        List<T> content = getResultList(typedQuery, type);
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Page<T> findPage(Specification<Patient> spec, Pageable pageable, Class<T> type) {
+        TypedQuery<T> typedQuery = createQuery(spec, pageable.getSort(), type);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(getResultList(typedQuery, type), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Stream<Patient> streamAll(Specification<Patient> spec, Sort sort, int fetchSize) {
+        TypedQuery<Patient> typedQuery = createQuery(spec, sort, Patient.class);
+        typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        typedQuery.setHint(HibernateHints.HINT_READ_ONLY, true);
+
+        return typedQuery.getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<UpdatedPatient> updateByPid(String pid, PatientUpdateRequest request,
+                                                List<Long> expectedVersions) {
+        Map<String, Object> columns = updatedColumns(request);
+        if (columns.isEmpty()) {
+            return entityManager.createQuery("SELECT p FROM Patient p WHERE p.pid = :pid", Patient.class)
+                    .setParameter("pid", pid)
+                    .getResultStream()
+                    .filter(patient -> expectedVersions == null || expectedVersions.contains(patient.getVersion()))
+                    .findFirst()
+                    .map(patient -> new UpdatedPatient(patient, PatientFacets.of(patient)));
+        }
+        // Set here because @PreUpdate and the @Version increment do not run for native statements
+        columns.put("updated_at", LocalDateTime.now());
+
+        StringJoiner assignments = new StringJoiner(", ");
+        columns.keySet().forEach(column -> assignments.add(column + " = :" + column));
+        assignments.add("version = version + 1");
+
+        // RETURNING only sees the new row, so the previous values are read from a locked CTE of the same statement
+        NativeQuery<Object[]> query = entityManager.createNativeQuery("WITH previous AS ("
+                        + "SELECT id, state, gender, date_of_birth FROM patients WHERE pid = :pid"
+                        + (expectedVersions != null ? " AND version IN (:versions)" : "") + " FOR UPDATE) "
+                        + "UPDATE patients p SET " + assignments + " FROM previous WHERE p.id = previous.id "
+                        + "RETURNING p.*, previous.state AS previous_state, previous.gender AS previous_gender, "
+                        + "previous.date_of_birth AS previous_date_of_birth")
+                .unwrap(NativeQuery.class)
+                .addEntity("p", Patient.class)
+                .addScalar("previous_state", String.class)
+                .addScalar("previous_gender", String.class)
+                .addScalar("previous_date_of_birth", LocalDate.class);
+        columns.forEach(query::setParameter);
+        query.setParameter("pid", pid);
+        if (expectedVersions != null) {
+            query.setParameterList("versions", expectedVersions);
+        }
+
+        return query.getResultList().stream()
+                .findFirst()
+                .map(row -> {
+                    Patient patient = (Patient) row[0];
+                    return new UpdatedPatient(patient, new PatientFacets(
+                            row[1] != null ? AustralianState.valueOf((String) row[1]) : null,
+                            row[2] != null ? Gender.valueOf((String) row[2]) : null,
+                            (LocalDate) row[3],
+                            patient.getCreatedAt()));
+                });
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<PatientFacets> deleteByPid(String pid, List<Long> expectedVersions) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery("DELETE FROM patients WHERE pid = :pid"
+                        + (expectedVersions != null ? " AND version IN (:versions)" : "")
+                        + " RETURNING state, gender, date_of_birth, created_at")
+                .unwrap(NativeQuery.class)
+                .addScalar("state", String.class)
+                .addScalar("gender", String.class)
+                .addScalar("date_of_birth", LocalDate.class)
+                .addScalar("created_at", LocalDateTime.class);
+        query.setParameter("pid", pid);
+        if (expectedVersions != null) {
+            query.setParameterList("versions", expectedVersions);
+        }
+
+        return query.getResultList().stream()
+                .findFirst()
+                .map(row -> new PatientFacets(
+                        row[0] != null ? AustralianState.valueOf((String) row[0]) : null,
+                        row[1] != null ? Gender.valueOf((String) row[1]) : null,
+                        (LocalDate) row[2],
+                        (LocalDateTime) row[3]));
+    }
+
+    /**
+     * Column values for the non-null request fields, enums are stored by name.
+     */
+    private Map<String, Object> updatedColumns(PatientUpdateRequest request) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        putIfPresent(columns, "first_name", request.getFirstName());
+        putIfPresent(columns, "last_name", request.getLastName());
+        putIfPresent(columns, "date_of_birth", request.getDateOfBirth());
+        putIfPresent(columns, "gender", request.getGender() != null ? request.getGender().name() : null);
+        putIfPresent(columns, "address", request.getAddress());
+        putIfPresent(columns, "suburb", request.getSuburb());
+        putIfPresent(columns, "state", request.getState() != null ? request.getState().name() : null);
+        putIfPresent(columns, "postcode", request.getPostcode());
+        putIfPresent(columns, "phone_number", request.getPhoneNumber());
+        return columns;
+    }
+
+    private void putIfPresent(Map<String, Object> columns, String column, Object value) {
+        if (value != null) {
+            columns.put(column, value);
+        }
+    }
+
+    private <T> TypedQuery<T> createQuery(Specification<Patient> spec, Sort sort, Class<T> type) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Patient> root = query.from(Patient.class);
+
+        query.select(createSelection(root, cb, type));
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Patient> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Patient> root = query.from(Patient.class);
+
+        query.select(cb.count(root));
+        applySpecification(spec, root, query, cb);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Loaded entities are counted by QueryBudgetHibernateListener, projected rows are not
+    private <T> List<T> getResultList(TypedQuery<T> typedQuery, Class<T> type) {
+        List<T> content = typedQuery.getResultList();
+        if (type != Patient.class) {
+            queryBudget.onRowsLoaded(content.size());
+        }
+        return content;
+    }
+
+    private void applySpecification(Specification<Patient> spec, Root<Patient> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+
+    /**
+     * Arguments follow the field order of each DTO's all-args constructor.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Selection<T> createSelection(Root<Patient> root, CriteriaBuilder cb, Class<T> type) {
+        if (type == Patient.class) {
+            return (Selection<T>) root;
+        }
+
+        Path<AustralianAddress> address = root.get("address");
+        if (type == PatientResponse.class) {
+            return cb.construct(type,
+                    root.get("id"),
+                    root.get("pid"),
+                    root.get("firstName"),
+                    root.get("lastName"),
+                    root.get("dateOfBirth"),
+                    root.get("gender"),
+                    address.get("address"),
+                    address.get("suburb"),
+                    address.get("state"),
+                    address.get("postcode"),
+                    root.get("phoneNumber"),
+                    root.get("createdAt"),
+                    root.get("updatedAt"),
+                    root.get("version"));
+        }
+        if (type == PatientSummaryResponse.class) {
+            return cb.construct(type,
+                    root.get("pid"),
+                    root.get("firstName"),
+                    root.get("lastName"),
+                    address.get("state"));
+        }
+
+        throw new IllegalArgumentException("Unsupported patient projection: " + type.getName());
+    }
+}
@@ -0,0 +1,9 @@
+package dev.dwidi.patientwebapp.repository;
+
+import dev.dwidi.patientwebapp.entity.Patient;
+
+/**
+ * A patient as it was written by an update, with the facets it had before.
+ */
+public record UpdatedPatient(Patient patient, PatientFacets previous) {
+}
@@ -0,0 +1,52 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Sort fields that support keyset pagination. Each field must be non-null so that
+ * {@code (field, id)} gives a total order over the table.
+ */
+enum KeysetSortField {
+    CREATED_AT("createdAt", PatientResponse::getCreatedAt, LocalDateTime::parse),
+    FIRST_NAME("firstName", PatientResponse::getFirstName, Function.identity()),
+    LAST_NAME("lastName", PatientResponse::getLastName, Function.identity()),
+    DATE_OF_BIRTH("dateOfBirth", PatientResponse::getDateOfBirth, LocalDate::parse),
+    PID("pid", PatientResponse::getPid, Function.identity()),
+    ID("id", PatientResponse::getId, Long::valueOf);
+
+    private final String property;
+    private final Function<PatientResponse, ? extends Comparable<?>> extractor;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    KeysetSortField(String property,
+                    Function<PatientResponse, ? extends Comparable<?>> extractor,
+                    Function<String, ? extends Comparable<?>> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    String getProperty() {
+        return property;
+    }
+
+    String valueOf(PatientResponse patient) {
+        return String.valueOf(extractor.apply(patient));
+    }
+
+    Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    static Optional<KeysetSortField> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst();
+    }
+}
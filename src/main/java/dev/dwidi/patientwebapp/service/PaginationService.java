@@ -4,7 +4,10 @@ import dev.dwidi.patientwebapp.dto.BaseResponse;
 import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
 import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
 
 public interface PaginationService {
     BaseResponse<PaginationResponse<PatientResponse>> getPatientsByPage(PaginationRequest request);
+
+    BaseResponse<PaginationResponse<PatientSummaryResponse>> getPatientSummariesByPage(PaginationRequest request);
 }
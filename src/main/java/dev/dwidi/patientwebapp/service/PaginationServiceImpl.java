@@ -1,58 +1,102 @@
 package dev.dwidi.patientwebapp.service;
 
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
 import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
 import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
 import dev.dwidi.patientwebapp.entity.Patient;
-import dev.dwidi.patientwebapp.exception.DateInvalidFormatException;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.exception.InvalidCursorException;
 import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.utils.CursorUtils;
 import dev.dwidi.patientwebapp.utils.DateValidator;
 import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("patient.service")
 public class PaginationServiceImpl implements PaginationService {
 
     private final PatientRepository patientRepository;
+    private final PatientCountService patientCountService;
+    private final PatientSearchIndex patientSearchIndex;
 
     @Override
+    @Transactional(readOnly = true)
     public BaseResponse<PaginationResponse<PatientResponse>> getPatientsByPage(PaginationRequest request) {
+        return getPage(request, PatientResponse.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse<PaginationResponse<PatientSummaryResponse>> getPatientSummariesByPage(PaginationRequest request) {
+        return getPage(request, PatientSummaryResponse.class);
+    }
 
-        String requestId = RequestIdUtils.generateRequestId();
+    /**
+     * Rows are projected straight into {@code type}, so no managed entities are hydrated for list responses.
+     */
+    private <T> BaseResponse<PaginationResponse<T>> getPage(PaginationRequest request, Class<T> type) {
+
+        String requestId = RequestIdUtils.currentRequestId();
 
         try {
-            validateDateRange(request.getStartDate(), request.getEndDate());
+            DateValidator.validateRange(request.getStartDate(), request.getEndDate());
 
             Sort sort = createSort(request);
-            Pageable pageable = createPageable(request, sort);
-            Specification<Patient> spec = createSpecifications(request);
+            Specification<Patient> spec = PatientSpecifications.matching(request);
 
-            Page<Patient> patientsPage = patientRepository.findAll(spec, pageable);
-            PaginationResponse<PatientResponse> response = createPaginationResponse(patientsPage);
+            PaginationResponse<T> response;
+            if (patientSearchIndex.isLoaded() && isIndexed(sort)) {
+                response = getPatientsFromIndex(request, sort, type);
+            } else if (request.getCursor() != null && !request.getCursor().isBlank()) {
+                response = getPatientsByCursor(request, spec, sort, type);
+            } else if (request.getCountMode() == null || request.getCountMode() == CountMode.EXACT) {
+                Pageable pageable = createPageable(request, sort);
+                Page<T> patientsPage = patientRepository.findPage(spec, pageable, type);
+                response = createPaginationResponse(patientsPage, sort);
+            } else {
+                response = getPatientsBySlice(request, spec, sort, type);
+            }
 
             return new BaseResponse<>(
                     HttpStatus.OK.value(),
-                    patientsPage.isEmpty() ? "No patients found" : "Patients retrieved successfully",
+                    response.getContent().isEmpty() ? "No patients found" : "Patients retrieved successfully",
                     response,
                     requestId
             );
 
+        } catch (InvalidCursorException e) {
+            log.error("Invalid pagination cursor: {}", e.getMessage());
+            return new BaseResponse<>(
+                    HttpStatus.BAD_REQUEST.value(),
+                    e.getMessage(),
+                    null,
+                    requestId
+            );
         } catch (Exception e) {
             log.error("Error retrieving patients with pagination: {}", e.getMessage());
             return new BaseResponse<>(
@@ -69,106 +113,247 @@ public class PaginationServiceImpl implements PaginationService {
         Sort.Direction direction = Sort.Direction.fromString(
                 request.getSortDirection() != null ? request.getSortDirection() : "DESC"
         );
-        return Sort.by(direction, sortField);
+        Sort sort = Sort.by(direction, sortField);
+
+        // Break ties on id so that page boundaries are stable and can be expressed as a cursor
+        return "id".equals(sortField) ? sort : sort.and(Sort.by(direction, "id"));
     }
 
     private Pageable createPageable(PaginationRequest request, Sort sort) {
         int pageNumber = Math.max(request.getPage(), 0);
-        int pageSize = request.getSize() != null ?
+        return PageRequest.of(pageNumber, resolvePageSize(request), sort);
+    }
+
+    private int resolvePageSize(PaginationRequest request) {
+        return request.getSize() != null ?
                 Math.min(Math.max(request.getSize(), 1), 100) : 10;
-        return PageRequest.of(pageNumber, pageSize, sort);
     }
 
-    private Specification<Patient> createSpecifications(PaginationRequest request) {
-        return (root, query, cb) -> {
-            Specification<Patient> spec = Specification.where(null);
-
-            if (request.getName() != null && !request.getName().trim().isEmpty()) {
-                String nameLike = "%" + request.getName().toLowerCase().trim() + "%";
-                spec = spec.and((root1, query1, cb1) ->
-                        cb1.or(
-                                cb1.like(cb1.lower(root1.get("firstName")), nameLike),
-                                cb1.like(cb1.lower(root1.get("lastName")), nameLike)
-                        )
-                );
-            }
+    private <T> PaginationResponse<T> getPatientsBySlice(PaginationRequest request,
+                                                         Specification<Patient> spec,
+                                                         Sort sort,
+                                                         Class<T> type) {
+        Slice<T> patientsSlice = patientRepository.findSlice(spec, createPageable(request, sort), type);
 
-            if (request.getState() != null) {
-                spec = spec.and((root1, query1, cb1) ->
-                        cb1.equal(root1.get("address").get("state"), request.getState())
-                );
-            }
+        PaginationResponse<T> response = PaginationResponse.<T>builder()
+                .content(patientsSlice.getContent())
+                .page(patientsSlice.getNumber())
+                .size(patientsSlice.getSize())
+                .last(!patientsSlice.hasNext())
+                .hasNext(patientsSlice.hasNext())
+                .countMode(CountMode.NONE)
+                .nextCursor(createNextCursor(patientsSlice, sort))
+                .build();
 
-            if (request.getStartDate() != null && request.getEndDate() != null) {
+        if (request.getCountMode() != CountMode.NONE) {
+            PatientCountService.Count count = patientCountService.count(
+                    spec, createFilterKey(request), request.getCountMode());
+            response.setTotalElements(count.total());
+            response.setTotalPages((int) ((count.total() + patientsSlice.getSize() - 1) / patientsSlice.getSize()));
+            response.setCountMode(count.mode());
+        }
 
-                LocalDateTime startDateTime = request.getStartDate().atStartOfDay();
-                LocalDateTime endDateTime = request.getEndDate().atTime(23, 59, 59);
+        return response;
+    }
 
-                log.info("Date filter - Start: {}, End: {}", startDateTime, endDateTime);
+    private String createFilterKey(PaginationRequest request) {
+        boolean hasName = request.getName() != null && !request.getName().trim().isEmpty();
+        if (!hasName && request.getState() == null && request.getStartDate() == null && request.getEndDate() == null) {
+            return PatientCountService.UNFILTERED;
+        }
 
-                // Query a sample record to check dates
-                List<Patient> samplePatients = patientRepository.findAll(PageRequest.of(0, 1)).getContent();
-                if (!samplePatients.isEmpty()) {
-                    log.info("Sample patient createdAt: {}", samplePatients.get(0).getCreatedAt());
-                }
+        return String.join("|",
+                hasName ? request.getName().toLowerCase().trim() : "",
+                String.valueOf(request.getState()),
+                String.valueOf(request.getStartDate()),
+                String.valueOf(request.getEndDate()));
+    }
 
-                spec = spec.and((root1, query1, cb1) ->
-                        cb1.between(root1.get("createdAt"),
-                                startDateTime,
-                                endDateTime)
-                );
-            }
+    private <T> PaginationResponse<T> getPatientsByCursor(PaginationRequest request,
+                                                          Specification<Patient> spec,
+                                                          Sort sort,
+                                                          Class<T> type) {
+        CursorUtils.Cursor cursor = CursorUtils.decode(request.getCursor());
+        Sort.Order order = sort.iterator().next();
+        KeysetSortField field = keysetField(order);
+        Comparable<?> lastValue = parseCursorValue(cursor, field, order);
 
-            return spec.toPredicate(root, query, cb);
-        };
+        Specification<Patient> keysetSpec = spec.and(
+                createKeysetSpecification(field, lastValue, cursor.id(), order.getDirection()));
+        Slice<T> patientsSlice = patientRepository.findSlice(
+                keysetSpec, PageRequest.of(0, resolvePageSize(request), sort), type);
+
+        return PaginationResponse.<T>builder()
+                .content(patientsSlice.getContent())
+                .size(patientsSlice.getSize())
+                .last(!patientsSlice.hasNext())
+                .hasNext(patientsSlice.hasNext())
+                .countMode(CountMode.NONE)
+                .nextCursor(createNextCursor(patientsSlice, sort))
+                .build();
+    }
+
+    private KeysetSortField keysetField(Sort.Order order) {
+        return KeysetSortField.fromProperty(order.getProperty())
+                .orElseThrow(() -> new InvalidCursorException(
+                        "Cursor pagination is not supported when sorting by " + order.getProperty()));
     }
 
-    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
-        if (startDate != null) {
-            DateValidator.validate(startDate.toString());
+    private Comparable<?> parseCursorValue(CursorUtils.Cursor cursor, KeysetSortField field, Sort.Order order) {
+        if (!field.getProperty().equals(cursor.sortBy()) || order.getDirection() != cursor.direction()) {
+            throw new InvalidCursorException("Cursor does not match the requested sort");
         }
-        if (endDate != null) {
-            DateValidator.validate(endDate.toString());
+
+        try {
+            return field.parse(cursor.value());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
         }
+    }
 
-        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
-            throw new DateInvalidFormatException("Start date cannot be after end date");
+    /**
+     * The search index keeps rows in {@code (createdAt, id)} order, the default sort, and cannot answer
+     * any other.
+     */
+    private boolean isIndexed(Sort sort) {
+        return KeysetSortField.CREATED_AT.getProperty().equals(sort.iterator().next().getProperty());
+    }
+
+    /**
+     * Answers the search from {@link PatientSearchIndex}, with the same paging, counting and cursor semantics
+     * as the database path. Summaries are built from the index alone; other types are read by primary key
+     * for the ids on the page, in one query.
+     */
+    private <T> PaginationResponse<T> getPatientsFromIndex(PaginationRequest request, Sort sort, Class<T> type) {
+        Sort.Order order = sort.iterator().next();
+        boolean hasCursor = request.getCursor() != null && !request.getCursor().isBlank();
+        CountMode countMode = hasCursor ? CountMode.NONE
+                : request.getCountMode() != null ? request.getCountMode() : CountMode.EXACT;
+
+        PatientSearchIndex.Query.QueryBuilder query = PatientSearchIndex.Query.builder()
+                .name(request.getName())
+                .state(request.getState())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .ascending(order.isAscending())
+                .count(countMode != CountMode.NONE);
+
+        Pageable pageable;
+        if (hasCursor) {
+            CursorUtils.Cursor cursor = CursorUtils.decode(request.getCursor());
+            query.afterCreatedAt((LocalDateTime) parseCursorValue(cursor, keysetField(order), order))
+                    .afterId(cursor.id());
+            pageable = PageRequest.of(0, resolvePageSize(request), sort);
+        } else {
+            pageable = createPageable(request, sort);
+        }
+
+        PatientSearchIndex.Result result = patientSearchIndex.search(query
+                .offset((int) Math.min(pageable.getOffset(), Integer.MAX_VALUE))
+                .limit(pageable.getPageSize())
+                .build());
+        List<T> content = toContent(result.hits(), sort, type);
+
+        if (countMode == CountMode.EXACT) {
+            return createPaginationResponse(new PageImpl<>(content, pageable, result.total()), sort);
+        }
+
+        Slice<T> patientsSlice = new SliceImpl<>(content, pageable, result.hasNext());
+        PaginationResponse<T> response = PaginationResponse.<T>builder()
+                .content(content)
+                .page(hasCursor ? null : patientsSlice.getNumber())
+                .size(patientsSlice.getSize())
+                .last(!patientsSlice.hasNext())
+                .hasNext(patientsSlice.hasNext())
+                .countMode(CountMode.NONE)
+                .nextCursor(createNextCursor(patientsSlice, sort))
+                .build();
+
+        // The index counts exactly at no extra round trip, so an estimate is never needed
+        if (countMode != CountMode.NONE) {
+            response.setTotalElements(result.total());
+            response.setTotalPages((int) ((result.total() + pageable.getPageSize() - 1) / pageable.getPageSize()));
+            response.setCountMode(CountMode.EXACT);
         }
+
+        return response;
     }
 
+    private <T> List<T> toContent(List<PatientSearchIndex.Hit> hits, Sort sort, Class<T> type) {
+        if (type == PatientSummaryResponse.class) {
+            return hits.stream().map(hit -> type.cast(hit.toSummary())).toList();
+        }
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = hits.stream().map(PatientSearchIndex.Hit::id).toList();
+        Specification<Patient> byIds = (root, query, cb) -> root.get("id").in(ids);
+        return patientRepository.findSlice(byIds, PageRequest.of(0, ids.size(), sort), type).getContent();
+    }
 
-    private PaginationResponse<PatientResponse> createPaginationResponse(Page<Patient> patientsPage) {
-        List<PatientResponse> patientResponses = patientsPage.getContent()
-                .stream()
-                .map(this::mapToPatientResponse)
-                .collect(Collectors.toList());
+    /**
+     * Matches rows strictly after {@code (lastValue, lastId)} in the requested direction.
+     * The redundant bound on the sort column alone lets the planner turn this into an index range scan.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Specification<Patient> createKeysetSpecification(KeysetSortField field,
+                                                             Comparable lastValue,
+                                                             Long lastId,
+                                                             Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = direction.isAscending()
+                    ? cb.greaterThan(idPath, lastId)
+                    : cb.lessThan(idPath, lastId);
 
-        return PaginationResponse.<PatientResponse>builder()
-                .content(patientResponses)
+            if (field == KeysetSortField.ID) {
+                return idAfter;
+            }
+
+            Path<Comparable> sortPath = root.get(field.getProperty());
+            Predicate bound = direction.isAscending()
+                    ? cb.greaterThanOrEqualTo(sortPath, lastValue)
+                    : cb.lessThanOrEqualTo(sortPath, lastValue);
+            Predicate valueAfter = direction.isAscending()
+                    ? cb.greaterThan(sortPath, lastValue)
+                    : cb.lessThan(sortPath, lastValue);
+
+            return cb.and(bound, cb.or(valueAfter, cb.and(cb.equal(sortPath, lastValue), idAfter)));
+        };
+    }
+
+    /**
+     * Only full patient rows carry the id and sort value a cursor needs; summaries page by offset.
+     */
+    private String createNextCursor(Slice<?> slice, Sort sort) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()
+                || !(slice.getContent().get(slice.getContent().size() - 1) instanceof PatientResponse lastPatient)) {
+            return null;
+        }
+
+        Sort.Order order = sort.iterator().next();
+
+        return KeysetSortField.fromProperty(order.getProperty())
+                .map(field -> CursorUtils.encode(
+                        field.getProperty(),
+                        order.getDirection(),
+                        field.valueOf(lastPatient),
+                        lastPatient.getId()))
+                .orElse(null);
+    }
+
+    private <T> PaginationResponse<T> createPaginationResponse(Page<T> patientsPage, Sort sort) {
+        return PaginationResponse.<T>builder()
+                .content(patientsPage.getContent())
                 .page(patientsPage.getNumber())
                 .size(patientsPage.getSize())
                 .totalElements(patientsPage.getTotalElements())
                 .totalPages(patientsPage.getTotalPages())
                 .last(patientsPage.isLast())
+                .hasNext(patientsPage.hasNext())
+                .countMode(CountMode.EXACT)
+                .nextCursor(createNextCursor(patientsPage, sort))
                 .build();
     }
-
-    private PatientResponse mapToPatientResponse(Patient patient) {
-        return PatientResponse.builder()
-                .id(patient.getId())
-                .pid(patient.getPid())
-                .firstName(patient.getFirstName())
-                .lastName(patient.getLastName())
-                .dateOfBirth(patient.getDateOfBirth())
-                .gender(patient.getGender())
-                .phoneNumber(patient.getPhoneNumber())
-                .address(patient.getAddress().getAddress())
-                .suburb(patient.getAddress().getSuburb())
-                .state(patient.getAddress().getState())
-                .postcode(patient.getAddress().getPostcode())
-                .createdAt(patient.getCreatedAt())
-                .updateAt(patient.getUpdatedAt())
-                .build();
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface PatientCountService {
+
+    /** Filter key used for requests without any filter, which can be answered from table statistics. */
+    String UNFILTERED = "";
+
+    Count count(Specification<Patient> spec, String filterKey, CountMode countMode);
+
+    /**
+     * @param total number of matching patients
+     * @param mode  how {@code total} was actually obtained, which may be weaker than requested
+     */
+    record Count(long total, CountMode mode) {
+    }
+}
@@ -0,0 +1,59 @@
+package dev.dwidi.patientwebapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+@Service
+@Slf4j
+@Timed("patient.service")
+public class PatientCountServiceImpl implements PatientCountService {
+
+    private final PatientRepository patientRepository;
+    private final Cache<String, Long> countCache;
+
+    public PatientCountServiceImpl(PatientRepository patientRepository,
+                                   @Value("${patient.count-cache.ttl:PT1M}") Duration ttl,
+                                   @Value("${patient.count-cache.maximum-size:1000}") long maximumSize) {
+        this.patientRepository = patientRepository;
+        this.countCache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Count count(Specification<Patient> spec, String filterKey, CountMode countMode) {
+        CountMode mode = countMode != null ? countMode : CountMode.EXACT;
+
+        return switch (mode) {
+            case EXACT -> new Count(patientRepository.count(spec), CountMode.EXACT);
+            case CACHED -> new Count(countCache.get(filterKey, key -> patientRepository.count(spec)), CountMode.CACHED);
+            case ESTIMATED -> estimate(spec, filterKey);
+            case NONE -> throw new IllegalArgumentException("Count mode NONE does not produce a total");
+        };
+    }
+
+    private Count estimate(Specification<Patient> spec, String filterKey) {
+        if (UNFILTERED.equals(filterKey)) {
+            Long estimate = patientRepository.estimateCount();
+            // reltuples is -1 until the table has been vacuumed or analyzed
+            if (estimate != null && estimate >= 0) {
+                return new Count(estimate, CountMode.ESTIMATED);
+            }
+            log.debug("No planner statistics for patients table, falling back to cached count");
+        }
+        return count(spec, filterKey, CountMode.CACHED);
+    }
+}
@@ -0,0 +1,14 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
+import dev.dwidi.patientwebapp.enums.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface PatientExportService {
+
+    /**
+     * Validates the filters and returns a body that streams every matching patient when written.
+     * Paging and sort parameters of the request are ignored; rows are exported in id order.
+     */
+    StreamingResponseBody exportPatients(PaginationRequest request, ExportFormat format);
+}
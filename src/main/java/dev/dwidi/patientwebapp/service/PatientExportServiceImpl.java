@@ -0,0 +1,125 @@
+package dev.dwidi.patientwebapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.ExportFormat;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.utils.DateValidator;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+@Timed("patient.service")
+public class PatientExportServiceImpl implements PatientExportService {
+
+    private static final String CSV_HEADER = "id,pid,firstName,lastName,dateOfBirth,gender,phoneNumber," +
+            "address,suburb,state,postcode,createdAt,updatedAt";
+
+    private final PatientRepository patientRepository;
+    private final ObjectWriter patientWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public PatientExportServiceImpl(PatientRepository patientRepository,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${patient.export.fetch-size:1000}") int fetchSize) {
+        this.patientRepository = patientRepository;
+        this.patientWriter = objectMapper.writerFor(PatientResponse.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public StreamingResponseBody exportPatients(PaginationRequest request, ExportFormat format) {
+        DateValidator.validateRange(request.getStartDate(), request.getEndDate());
+        Specification<Patient> spec = PatientSpecifications.matching(request);
+
+        return outputStream -> {
+            long exported;
+            try {
+                exported = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                    try (Stream<Patient> patients = patientRepository.streamAll(spec, Sort.by("id"), fetchSize)) {
+                        return write(patients, format, outputStream);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            log.info("Exported {} patients as {}", exported, format);
+        };
+    }
+
+    private long write(Stream<Patient> patients, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        for (Patient patient : (Iterable<Patient>) patients::iterator) {
+            PatientResponse response = PatientMapper.toPatientResponse(patient);
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, response);
+            } else {
+                writer.write(patientWriter.writeValueAsString(response));
+            }
+            writer.write('\n');
+            count++;
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, PatientResponse response) throws IOException {
+        Object[] values = {
+                response.getId(), response.getPid(), response.getFirstName(), response.getLastName(),
+                response.getDateOfBirth(), response.getGender(), response.getPhoneNumber(),
+                response.getAddress(), response.getSuburb(), response.getState(), response.getPostcode(),
+                response.getCreatedAt(), response.getUpdateAt()
+        };
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -1,15 +1,22 @@
 package dev.dwidi.patientwebapp.service;
 
 import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientBatchResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientRequest;
 import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientUpdateRequest;
+import dev.dwidi.patientwebapp.enums.CountMode;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 public interface PatientService {
     BaseResponse<PatientResponse> createPatient(PatientRequest patientRequest);
-    BaseResponse<PatientResponse> updatePatient(String pid, PatientUpdateRequest patientUpdateRequest);
-    BaseResponse<PatientResponse> deletePatient(String pid);
+    BaseResponse<PatientBatchResponse> createPatients(List<PatientRequest> patientRequests);
+    BaseResponse<PatientResponse> updatePatient(String pid, PatientUpdateRequest patientUpdateRequest, List<Long> expectedVersions);
+    BaseResponse<PatientResponse> deletePatient(String pid, List<Long> expectedVersions);
     BaseResponse<PatientResponse> getPatientByPID(String pid);
     BaseResponse<Page<PatientResponse>> getAllPatients(Integer page, Integer size);
+    BaseResponse<PaginationResponse<PatientResponse>> getAllPatients(Integer page, Integer size, CountMode countMode);
 }
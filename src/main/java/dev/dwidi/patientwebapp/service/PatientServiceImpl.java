@@ -1,64 +1,82 @@
 package dev.dwidi.patientwebapp.service;
 
+import dev.dwidi.patientwebapp.cache.KnownPidFilter;
+import dev.dwidi.patientwebapp.cache.PatientResponseCache;
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
+import dev.dwidi.patientwebapp.constant.ApplicationConstant;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientBatchItemResult;
+import dev.dwidi.patientwebapp.dto.patient.PatientBatchResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientRequest;
 import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientUpdateRequest;
 import dev.dwidi.patientwebapp.entity.Patient;
 import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
 import dev.dwidi.patientwebapp.enums.AustralianState;
-import dev.dwidi.patientwebapp.exception.PatientNotFoundException;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import dev.dwidi.patientwebapp.monitoring.PatientMetrics;
+import dev.dwidi.patientwebapp.repository.PatientFacets;
 import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.repository.UpdatedPatient;
 import dev.dwidi.patientwebapp.utils.PostCodeValidator;
 import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed("patient.service")
 public class PatientServiceImpl implements PatientService {
 
     private final PatientRepository patientRepository;
+    private final PatientCountService patientCountService;
+    private final PatientResponseCache patientResponseCache;
+    private final PidGenerator pidGenerator;
+    private final PatientMetrics patientMetrics;
+    private final KnownPidFilter knownPidFilter;
+    private final PatientSearchIndex patientSearchIndex;
+    private final PatientStatistics patientStatistics;
 
     @Override
     public BaseResponse<PatientResponse> createPatient(PatientRequest patientRequest) {
 
-        String requestId = RequestIdUtils.generateRequestId();
+        String requestId = RequestIdUtils.currentRequestId();
 
         PostCodeValidator.validatePostcode(patientRequest.getPostcode(), String.valueOf(patientRequest.getState()));
 
         try {
 
-            Patient patient = new Patient();
-            patient.setFirstName(patientRequest.getFirstName());
-            patient.setLastName(patientRequest.getLastName());
-            patient.setDateOfBirth(patientRequest.getDateOfBirth());
-            patient.setGender(patientRequest.getGender());
-            patient.setPid(generatePatientId());
-            patient.setPhoneNumber(patientRequest.getPhoneNumber());
-
-            AustralianAddress address = new AustralianAddress();
-            address.setAddress(patientRequest.getAddress());
-            address.setSuburb(patientRequest.getSuburb());
-            address.setState(AustralianState.valueOf(String.valueOf(patientRequest.getState())));
-            address.setPostcode(patientRequest.getPostcode());
-            patient.setAddress(address);
+            Patient patient = toPatient(patientRequest);
 
             // Save patient
-            Patient savedPatient = patientRepository.save(patient);
+            Patient savedPatient;
+            try (PatientStatistics.Write write = patientStatistics.beginWrite()) {
+                savedPatient = patientRepository.save(patient);
+                write.created(savedPatient);
+            }
+            patientSearchIndex.put(savedPatient);
 
             // Map to response
-            PatientResponse response = mapToPatientResponse(savedPatient);
+            PatientResponse response = PatientMapper.toPatientResponse(savedPatient);
+            patientResponseCache.put(response);
 
             return new BaseResponse<>(
                     HttpStatus.CREATED.value(),
@@ -68,6 +86,7 @@ public class PatientServiceImpl implements PatientService {
 
         } catch (Exception e) {
             log.error("Error creating patient: ", e);
+            patientMetrics.serviceError("createPatient", HttpStatus.INTERNAL_SERVER_ERROR);
             return new BaseResponse<>(
                     HttpStatus.INTERNAL_SERVER_ERROR.value(),
                     "Error creating patient",
@@ -76,60 +95,186 @@ public class PatientServiceImpl implements PatientService {
         }
     }
 
-    private PatientResponse mapToPatientResponse(Patient patient) {
-        return PatientResponse.builder()
-                .id(patient.getId())
-                .pid(patient.getPid())
-                .firstName(patient.getFirstName())
-                .lastName(patient.getLastName())
-                .dateOfBirth(patient.getDateOfBirth())
-                .gender(patient.getGender())
-                .phoneNumber(patient.getPhoneNumber())
-                .address(patient.getAddress().getAddress())
-                .suburb(patient.getAddress().getSuburb())
-                .state(AustralianState.valueOf(String.valueOf(patient.getAddress().getState())))
-                .postcode(patient.getAddress().getPostcode())
-                .createdAt(patient.getCreatedAt())
-                .updateAt(patient.getUpdatedAt())
+    @Override
+    public BaseResponse<PatientBatchResponse> createPatients(List<PatientRequest> patientRequests) {
+        String requestId = RequestIdUtils.currentRequestId();
+
+        if (patientRequests == null || patientRequests.isEmpty()) {
+            patientMetrics.serviceError("createPatients", HttpStatus.BAD_REQUEST);
+            return new BaseResponse<>(
+                    HttpStatus.BAD_REQUEST.value(),
+                    "Batch must contain at least one patient",
+                    null, requestId
+            );
+        }
+
+        if (patientRequests.size() > ApplicationConstant.MAX_BATCH_SIZE) {
+            patientMetrics.serviceError("createPatients", HttpStatus.BAD_REQUEST);
+            return new BaseResponse<>(
+                    HttpStatus.BAD_REQUEST.value(),
+                    String.format("Batch size %d exceeds maximum of %d",
+                            patientRequests.size(), ApplicationConstant.MAX_BATCH_SIZE),
+                    null, requestId
+            );
+        }
+
+        PatientBatchItemResult[] results = new PatientBatchItemResult[patientRequests.size()];
+        List<Integer> chunkIndexes = new ArrayList<>(ApplicationConstant.BATCH_CHUNK_SIZE);
+        List<Patient> chunk = new ArrayList<>(ApplicationConstant.BATCH_CHUNK_SIZE);
+
+        // Validate every item up front so that only valid rows reach the JDBC batch
+        for (int i = 0; i < patientRequests.size(); i++) {
+            String error = validatePatientRequest(patientRequests.get(i));
+            if (error != null) {
+                results[i] = PatientBatchItemResult.builder().index(i).success(false).error(error).build();
+                continue;
+            }
+
+            chunkIndexes.add(i);
+            chunk.add(toPatient(patientRequests.get(i)));
+
+            if (chunk.size() == ApplicationConstant.BATCH_CHUNK_SIZE) {
+                saveChunk(chunk, chunkIndexes, results);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, chunkIndexes, results);
+        }
+
+        int succeeded = 0;
+        for (PatientBatchItemResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+        }
+
+        PatientBatchResponse response = PatientBatchResponse.builder()
+                .total(results.length)
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(List.of(results))
                 .build();
+
+        return new BaseResponse<>(
+                succeeded == results.length ? HttpStatus.CREATED.value() : HttpStatus.MULTI_STATUS.value(),
+                String.format("Created %d of %d patients", succeeded, results.length),
+                response, requestId
+        );
     }
 
-    private String generatePatientId() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    /**
+     * Persists one chunk in its own transaction. Ids come from the pooled sequence, so Hibernate
+     * can group the inserts into JDBC batches. A failure rolls back and reports the whole chunk.
+     */
+    private void saveChunk(List<Patient> chunk, List<Integer> chunkIndexes, PatientBatchItemResult[] results) {
+        try (PatientStatistics.Write write = patientStatistics.beginWrite()) {
+            List<Patient> savedPatients = patientRepository.saveAll(chunk);
+            savedPatients.forEach(write::created);
+
+            for (int i = 0; i < savedPatients.size(); i++) {
+                Patient savedPatient = savedPatients.get(i);
+                patientSearchIndex.put(savedPatient);
+                results[chunkIndexes.get(i)] = PatientBatchItemResult.builder()
+                        .index(chunkIndexes.get(i))
+                        .success(true)
+                        .id(savedPatient.getId())
+                        .pid(savedPatient.getPid())
+                        .build();
+            }
+        } catch (Exception e) {
+            log.error("Error creating patient batch chunk of {} patients: ", chunk.size(), e);
+            patientMetrics.serviceError("createPatients", HttpStatus.INTERNAL_SERVER_ERROR);
+            for (Integer index : chunkIndexes) {
+                results[index] = PatientBatchItemResult.builder()
+                        .index(index)
+                        .success(false)
+                        .error("Error creating patient")
+                        .build();
+            }
+        }
+    }
+
+    private String validatePatientRequest(PatientRequest request) {
+        if (request == null) {
+            return "Patient is required";
+        }
+        if (isBlank(request.getFirstName()) || isBlank(request.getLastName())) {
+            return "First name and last name are required";
+        }
+        if (request.getDateOfBirth() == null || request.getGender() == null) {
+            return "Date of birth and gender are required";
+        }
+        if (isBlank(request.getAddress()) || isBlank(request.getSuburb()) || request.getState() == null) {
+            return "Address, suburb and state are required";
+        }
+        if (isBlank(request.getPhoneNumber())) {
+            return "Phone number is required";
+        }
+
+        return PostCodeValidator.postcodeError(request.getPostcode(), String.valueOf(request.getState()));
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private Patient toPatient(PatientRequest patientRequest) {
+        Patient patient = new Patient();
+        patient.setFirstName(patientRequest.getFirstName());
+        patient.setLastName(patientRequest.getLastName());
+        patient.setDateOfBirth(patientRequest.getDateOfBirth());
+        patient.setGender(patientRequest.getGender());
+        patient.setPid(pidGenerator.generate());
+        knownPidFilter.add(patient.getPid());
+        patient.setPhoneNumber(patientRequest.getPhoneNumber());
+
+        AustralianAddress address = new AustralianAddress();
+        address.setAddress(patientRequest.getAddress());
+        address.setSuburb(patientRequest.getSuburb());
+        address.setState(AustralianState.valueOf(String.valueOf(patientRequest.getState())));
+        address.setPostcode(patientRequest.getPostcode());
+        patient.setAddress(address);
+
+        return patient;
     }
 
     @Override
-    public BaseResponse<PatientResponse> updatePatient(String pid, PatientUpdateRequest patientUpdateRequest) {
-        String requestId = RequestIdUtils.generateRequestId();
+    public BaseResponse<PatientResponse> updatePatient(String pid, PatientUpdateRequest patientUpdateRequest,
+                                                       List<Long> expectedVersions) {
+        String requestId = RequestIdUtils.currentRequestId();
 
         PostCodeValidator.validatePostcode(patientUpdateRequest.getPostcode(), String.valueOf(patientUpdateRequest.getState()));
+        if (knownPidFilter.isAbsent(pid)) {
+            return notFound("updatePatient", pid, requestId);
+        }
         try {
-            Patient patient = patientRepository.findByPid(pid)
-                    .orElseThrow(() -> new PatientNotFoundException("Patient not found with PID: " + pid));
-
-            // Update patient details if provided (null-safe updates)
-            updatePatientDetails(patient, patientUpdateRequest);
-
-            // Save updated patient
-            Patient updatedPatient = patientRepository.save(patient);
+            // Only the provided fields are written, in a single UPDATE ... RETURNING statement
+            Optional<UpdatedPatient> updatedPatient;
+            try (PatientStatistics.Write write = patientStatistics.beginWrite()) {
+                updatedPatient = patientRepository.updateByPid(pid, patientUpdateRequest, expectedVersions);
+                updatedPatient.ifPresent(write::updated);
+            }
+            if (updatedPatient.isEmpty()) {
+                return notUpdated("updatePatient", pid, expectedVersions, requestId);
+            }
+            Patient patient = updatedPatient.get().patient();
+            patientSearchIndex.put(patient);
+            PatientResponse response = PatientMapper.toPatientResponse(patient);
+            patientResponseCache.put(response);
 
             return new BaseResponse<>(
                     HttpStatus.OK.value(),
                     "Patient updated successfully",
-                    mapToPatientResponse(updatedPatient),
+                    response,
                     requestId
             );
 
-        } catch (PatientNotFoundException e) {
-            log.error("Patient not found: {}", pid);
-            return new BaseResponse<>(
-                    HttpStatus.NOT_FOUND.value(),
-                    e.getMessage(),
-                    null,
-                    requestId
-            );
         } catch (Exception e) {
             log.error("Error updating patient: ", e);
+            patientMetrics.serviceError("updatePatient", HttpStatus.INTERNAL_SERVER_ERROR);
             return new BaseResponse<>(
                     HttpStatus.INTERNAL_SERVER_ERROR.value(),
                     "Error updating patient",
@@ -139,40 +284,24 @@ public class PatientServiceImpl implements PatientService {
         }
     }
 
-    private void updatePatientDetails(Patient patient, PatientUpdateRequest request) {
-        // Update only if new values are provided
-        Optional.ofNullable(request.getFirstName())
-                .ifPresent(patient::setFirstName);
-        Optional.ofNullable(request.getLastName())
-                .ifPresent(patient::setLastName);
-        Optional.ofNullable(request.getDateOfBirth())
-                .ifPresent(patient::setDateOfBirth);
-        Optional.ofNullable(request.getGender())
-                .ifPresent(patient::setGender);
-        Optional.ofNullable(request.getPhoneNumber())
-                .ifPresent(patient::setPhoneNumber);
-
-        // Handle address updates
-        AustralianAddress address = patient.getAddress();
-        Optional.ofNullable(request.getAddress())
-                .ifPresent(address::setAddress);
-        Optional.ofNullable(request.getSuburb())
-                .ifPresent(address::setSuburb);
-        Optional.ofNullable(request.getState())
-                .ifPresent(address::setState);
-        Optional.ofNullable(request.getPostcode())
-                .ifPresent(address::setPostcode);
-    }
-
     @Override
-    public BaseResponse<PatientResponse> deletePatient(String pid) {
-        String requestId = RequestIdUtils.generateRequestId();
+    public BaseResponse<PatientResponse> deletePatient(String pid, List<Long> expectedVersions) {
+        String requestId = RequestIdUtils.currentRequestId();
 
+        if (knownPidFilter.isAbsent(pid)) {
+            return notFound("deletePatient", pid, requestId);
+        }
         try {
-            Patient patient = patientRepository.findByPid(pid)
-                    .orElseThrow(() -> new PatientNotFoundException(("Patient not found with PID: " + pid)));
-
-            patientRepository.delete(patient);
+            Optional<PatientFacets> deleted;
+            try (PatientStatistics.Write write = patientStatistics.beginWrite()) {
+                deleted = patientRepository.deleteByPid(pid, expectedVersions);
+                deleted.ifPresent(write::deleted);
+            }
+            if (deleted.isEmpty()) {
+                return notUpdated("deletePatient", pid, expectedVersions, requestId);
+            }
+            patientResponseCache.invalidate(pid);
+            patientSearchIndex.remove(pid);
 
             return new BaseResponse<>(
                     HttpStatus.OK.value(),
@@ -181,16 +310,9 @@ public class PatientServiceImpl implements PatientService {
                     requestId
             );
 
-        } catch (PatientNotFoundException e) {
-            log.error("Patient not found for deletion: {}", pid);
-            return new BaseResponse<>(
-                    HttpStatus.NOT_FOUND.value(),
-                    e.getMessage(),
-                    null,
-                    requestId
-            );
         } catch (Exception e) {
             log.error("Error deleting patient with pid {}: {}", pid, e.getMessage());
+            patientMetrics.serviceError("deletePatient", HttpStatus.INTERNAL_SERVER_ERROR);
             return new BaseResponse<>(
                     HttpStatus.INTERNAL_SERVER_ERROR.value(),
                     "Error deleting patient",
@@ -200,35 +322,74 @@ public class PatientServiceImpl implements PatientService {
         }
     }
 
+    /**
+     * A conditional update or delete matches no row both when the patient is gone and when its version
+     * moved on, only the failure path pays for the extra lookup that tells them apart.
+     */
+    private BaseResponse<PatientResponse> notUpdated(String operation, String pid, List<Long> expectedVersions,
+                                                     String requestId) {
+        if (expectedVersions != null && patientRepository.existsByPid(pid)) {
+            String expectedVersion = expectedVersions.stream().map(String::valueOf).collect(Collectors.joining(", "));
+            log.debug("{} rejected, patient {} is no longer at version {}", operation, pid, expectedVersion);
+            patientMetrics.serviceError(operation, HttpStatus.PRECONDITION_FAILED);
+            return new BaseResponse<>(
+                    HttpStatus.PRECONDITION_FAILED.value(),
+                    "Patient with PID: " + pid + " has been modified since version " + expectedVersion,
+                    null,
+                    requestId
+            );
+        }
+        knownPidFilter.recordMiss(pid);
+        return notFound(operation, pid, requestId);
+    }
+
+    /**
+     * Unknown PIDs are an expected answer rather than a failure, so they are counted and logged at debug
+     * instead of going through an exception and an ERROR line.
+     */
+    private BaseResponse<PatientResponse> notFound(String operation, String pid, String requestId) {
+        log.debug("{} found no patient with PID {}", operation, pid);
+        patientMetrics.serviceError(operation, HttpStatus.NOT_FOUND);
+        return new BaseResponse<>(
+                HttpStatus.NOT_FOUND.value(),
+                "Patient not found with PID: " + pid,
+                null,
+                requestId
+        );
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public BaseResponse<PatientResponse> getPatientByPID(String pid) {
-        String requestId = RequestIdUtils.generateRequestId();
+        String requestId = RequestIdUtils.currentRequestId();
 
         if (pid == null) {
             throw new RuntimeException("PID can not be blank");
         }
 
+        if (knownPidFilter.isAbsent(pid)) {
+            return notFound("getPatientByPID", pid, requestId);
+        }
         try {
-            Patient patient = patientRepository.findByPid(pid)
-                    .orElseThrow(() -> new PatientNotFoundException("Patient not found with PID: " + pid));
+            PatientResponse response = patientResponseCache.get(pid, key -> patientRepository.findByPid(key)
+                    .map(PatientMapper::toPatientResponse)
+                    .orElse(null));
+
+            if (response == null) {
+                knownPidFilter.recordMiss(pid);
+                return notFound("getPatientByPID", pid, requestId);
+            }
 
             return new BaseResponse<>(
                     HttpStatus.OK.value(),
                     "Patient retrieved successfully",
-                    mapToPatientResponse(patient),
+                    response,
                     requestId
             );
 
-        } catch (PatientNotFoundException e) {
-            log.error("Patient not found with PID: {}", pid);
-            return new BaseResponse<>(
-                    HttpStatus.NOT_FOUND.value(),
-                    e.getMessage(),
-                    null,
-                    requestId
-            );
         } catch (Exception e) {
             log.error("Error retrieving patient with PID {}: {}", pid, e.getMessage());
+            patientMetrics.serviceError("getPatientByPID", HttpStatus.INTERNAL_SERVER_ERROR);
             return new BaseResponse<>(
                     HttpStatus.INTERNAL_SERVER_ERROR.value(),
                     "Error retrieving patient",
@@ -239,8 +400,9 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BaseResponse<Page<PatientResponse>> getAllPatients(Integer page, Integer size) {
-        String requestId = RequestIdUtils.generateRequestId();
+        String requestId = RequestIdUtils.currentRequestId();
 
         try {
             // Default values if page or size is null
@@ -251,13 +413,10 @@ public class PatientServiceImpl implements PatientService {
             Pageable pageable = PageRequest.of(pageNumber, pageSize,
                     Sort.by("createdAt").descending());
 
-            // Fetch patients with pagination
-            Page<Patient> patientsPage = patientRepository.findAll(pageable);
+            // Fetch patients with pagination, projected straight into the response
+            Page<PatientResponse> patientResponses = patientRepository.findPage(null, pageable, PatientResponse.class);
 
-            // Map to response
-            Page<PatientResponse> patientResponses = patientsPage.map(this::mapToPatientResponse);
-
-            if (patientsPage.isEmpty()) {
+            if (patientResponses.isEmpty()) {
                 return new BaseResponse<>(
                         HttpStatus.OK.value(),
                         "No patients found",
@@ -275,6 +434,58 @@ public class PatientServiceImpl implements PatientService {
 
         } catch (Exception e) {
             log.error("Error retrieving patients: {}", e.getMessage());
+            patientMetrics.serviceError("getAllPatients", HttpStatus.INTERNAL_SERVER_ERROR);
+            return new BaseResponse<>(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "Error retrieving patients",
+                    null,
+                    requestId
+            );
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BaseResponse<PaginationResponse<PatientResponse>> getAllPatients(Integer page, Integer size, CountMode countMode) {
+        String requestId = RequestIdUtils.currentRequestId();
+
+        try {
+            int pageNumber = (page != null && page >= 0) ? page : 0;
+            int pageSize = (size != null && size > 0) ? size : 10;
+
+            Pageable pageable = PageRequest.of(pageNumber, pageSize,
+                    Sort.by("createdAt").descending());
+
+            // Fetch one page without the count query, the total is resolved separately if requested
+            Slice<PatientResponse> patientsSlice = patientRepository.findSlice(null, pageable, PatientResponse.class);
+
+            PaginationResponse<PatientResponse> response = PaginationResponse.<PatientResponse>builder()
+                    .content(patientsSlice.getContent())
+                    .page(patientsSlice.getNumber())
+                    .size(patientsSlice.getSize())
+                    .last(!patientsSlice.hasNext())
+                    .hasNext(patientsSlice.hasNext())
+                    .countMode(CountMode.NONE)
+                    .build();
+
+            if (countMode != null && countMode != CountMode.NONE) {
+                PatientCountService.Count count = patientCountService.count(
+                        null, PatientCountService.UNFILTERED, countMode);
+                response.setTotalElements(count.total());
+                response.setTotalPages((int) ((count.total() + pageSize - 1) / pageSize));
+                response.setCountMode(count.mode());
+            }
+
+            return new BaseResponse<>(
+                    HttpStatus.OK.value(),
+                    patientsSlice.isEmpty() ? "No patients found" : "Patients retrieved successfully",
+                    response,
+                    requestId
+            );
+
+        } catch (Exception e) {
+            log.error("Error retrieving patients: {}", e.getMessage());
+            patientMetrics.serviceError("getAllPatients", HttpStatus.INTERNAL_SERVER_ERROR);
             return new BaseResponse<>(
                     HttpStatus.INTERNAL_SERVER_ERROR.value(),
                     "Error retrieving patients",
@@ -283,4 +494,4 @@ public class PatientServiceImpl implements PatientService {
             );
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
+import dev.dwidi.patientwebapp.entity.Patient;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds the patient filter shared by paginated search and export from a {@link PaginationRequest}.
+ */
+final class PatientSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private PatientSpecifications() {
+    }
+
+    static Specification<Patient> matching(PaginationRequest request) {
+        Specification<Patient> spec = Specification.where(null);
+
+        if (request.getName() != null && !request.getName().trim().isEmpty()) {
+            spec = spec.and(nameContains(request.getName()));
+        }
+
+        if (request.getState() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("address").get("state"), request.getState())
+            );
+        }
+
+        if (request.getStartDate() != null && request.getEndDate() != null) {
+            LocalDateTime startDateTime = request.getStartDate().atStartOfDay();
+            LocalDateTime endDateTime = request.getEndDate().atTime(23, 59, 59);
+
+            spec = spec.and((root, query, cb) ->
+                    cb.between(root.get("createdAt"), startDateTime, endDateTime)
+            );
+        }
+
+        return spec;
+    }
+
+    /**
+     * Case-insensitive substring match on first or last name. The {@code lower(...)} expressions
+     * are backed by the pg_trgm GIN indexes from V2__patient_name_trigram_index.sql, which serve
+     * LIKE patterns with a leading wildcard. User input is escaped so it cannot inject wildcards.
+     */
+    static Specification<Patient> nameContains(String name) {
+        String nameLike = "%" + escapeLikePattern(name.toLowerCase().trim()) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), nameLike, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("lastName")), nameLike, LIKE_ESCAPE)
+        );
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
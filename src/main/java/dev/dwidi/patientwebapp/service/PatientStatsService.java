@@ -0,0 +1,13 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+
+public interface PatientStatsService {
+
+    /**
+     * Patient counts by state, gender, age band and creation day, answered from in-memory counters
+     * without querying the database. Answers 503 until the counters have been loaded after startup.
+     */
+    BaseResponse<PatientStatsResponse> getStats();
+}
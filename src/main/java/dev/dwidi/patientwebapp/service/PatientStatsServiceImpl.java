@@ -0,0 +1,46 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.monitoring.PatientMetrics;
+import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Timed("patient.service")
+public class PatientStatsServiceImpl implements PatientStatsService {
+
+    private final PatientStatistics patientStatistics;
+    private final PatientMetrics patientMetrics;
+
+    @Override
+    public BaseResponse<PatientStatsResponse> getStats() {
+        String requestId = RequestIdUtils.currentRequestId();
+
+        PatientStatsResponse response = patientStatistics.stats();
+        if (response == null) {
+            log.debug("Patient statistics requested before they were loaded");
+            patientMetrics.serviceError("getStats", HttpStatus.SERVICE_UNAVAILABLE);
+            return new BaseResponse<>(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Patient statistics are still loading",
+                    null,
+                    requestId
+            );
+        }
+
+        return new BaseResponse<>(
+                HttpStatus.OK.value(),
+                "Patient statistics retrieved successfully",
+                response,
+                requestId
+        );
+    }
+}
@@ -0,0 +1,130 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.exception.FailedGeneratePIDException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues time-ordered patient ids without coordination between threads.
+ * <p>
+ * An id is a 64-bit value made of 41 bits of milliseconds since {@link #EPOCH}, a 10-bit node id and a
+ * 12-bit per-node sequence, rendered as 16 lowercase hex characters. Fixed-width hex sorts the same way
+ * as the number, so new PIDs land at the right-hand edge of the unique {@code pid} index instead of at
+ * random leaf pages. Ids from one node are strictly increasing, and ids from different nodes cannot
+ * collide as long as every node is configured with its own {@code patient.pid.node-id}.
+ */
+@Component
+public class PidGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // How far ahead of the wall clock ids may run before callers spin until the clock catches up
+    private static final long MAX_BORROW_MILLIS = 10;
+
+    // A larger gap means the clock was set back; fail instead of stalling every caller
+    private static final long MAX_DRIFT_MILLIS = 5_000;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public PidGenerator(@Value("${patient.pid.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    PidGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("patient.pid.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public String generate() {
+        return format(nextId());
+    }
+
+    long nextId() {
+        while (true) {
+            long current = lastState.get();
+            long now = clock.getAsLong() - EPOCH;
+
+            // A new millisecond restarts the sequence. Otherwise increment; an exhausted sequence carries
+            // into the timestamp, borrowing the next millisecond, which also covers a clock moving backwards.
+            // Borrowing is bounded, so sustained demand above 4096 ids/ms waits for the clock instead.
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+
+            long timestamp = next >>> SEQUENCE_BITS;
+            long ahead = timestamp - now;
+            if (ahead > MAX_DRIFT_MILLIS) {
+                throw new FailedGeneratePIDException("Failed to generate PID: clock is behind the last issued PID");
+            }
+            if (ahead > MAX_BORROW_MILLIS) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            if (lastState.compareAndSet(current, next)) {
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * The numeric id behind a PID issued by this class, or -1 for anything else such as legacy PIDs.
+     */
+    public static long parse(String pid) {
+        if (pid == null || pid.length() != 16) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < 16; i++) {
+            char c = pid.charAt(i);
+            int digit = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            id = (id << 4) | digit;
+        }
+        return id >= 0 ? id : -1;
+    }
+
+    /**
+     * Epoch milliseconds encoded in a parsed id. Ids may run a few milliseconds ahead of the clock, never
+     * behind it.
+     */
+    public static long issuedAt(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * Renders a parsed id back into its PID, the inverse of {@link #parse(String)}.
+     */
+    public static String format(long id) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.dwidi.patientwebapp.utils;
+
+import dev.dwidi.patientwebapp.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation token used by keyset pagination.
+ * A token carries the sort it was issued for and the sort value and id of the last row returned.
+ */
+public class CursorUtils {
+
+    private static final char SEPARATOR = '|';
+
+    private CursorUtils() {
+    }
+
+    public static String encode(String sortBy, Sort.Direction direction, String value, Long id) {
+        String raw = sortBy + SEPARATOR + direction.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+
+        // The value may itself contain the separator, so split on the first two and the last one
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first < 0 || second < 0 || last <= second) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+
+        try {
+            return new Cursor(
+                    raw.substring(0, first),
+                    Sort.Direction.valueOf(raw.substring(first + 1, second)),
+                    raw.substring(second + 1, last),
+                    Long.parseLong(raw.substring(last + 1))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    public record Cursor(String sortBy, Sort.Direction direction, String value, Long id) {
+    }
+}
@@ -3,6 +3,7 @@ package dev.dwidi.patientwebapp.utils;
 import dev.dwidi.patientwebapp.constant.ApplicationConstant;
 import dev.dwidi.patientwebapp.exception.DateInvalidFormatException;
 
+import java.text.ParsePosition;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -22,14 +23,31 @@ public class DateValidator {
             );
         }
 
+        // Malformed input is rejected without a DateTimeParseException, only a well-formed string that
+        // names an impossible date such as 2024-02-30 still goes through the throwing resolver
+        ParsePosition position = new ParsePosition(0);
+        if (formatter.parseUnresolved(date, position) == null || position.getIndex() != date.length()) {
+            throw invalidFormat();
+        }
         try {
             LocalDate.parse(date, formatter);
         } catch (DateTimeParseException e) {
-            throw new DateInvalidFormatException(
-                    String.format("Invalid date format. Expected format: %s", ApplicationConstant.DATE_PATTERN)
-            );
+            throw invalidFormat();
         }
     }
 
+    private static DateInvalidFormatException invalidFormat() {
+        return new DateInvalidFormatException(
+                String.format("Invalid date format. Expected format: %s", ApplicationConstant.DATE_PATTERN)
+        );
+    }
 
+    /**
+     * Both bounds are already bound as {@link LocalDate}, so only their order is left to check.
+     */
+    public static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new DateInvalidFormatException("Start date cannot be after end date");
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package dev.dwidi.patientwebapp.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps a patient's version to the entity tag sent in {@code ETag} and back from {@code If-Match}.
+ */
+public class ETagUtils {
+
+    /** Never a stored version, so a malformed or weak tag in {@code If-Match} fails the precondition. */
+    public static final long UNMATCHABLE_VERSION = -1;
+
+    private ETagUtils() {
+    }
+
+    public static String toETag(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * {@code If-Match} uses the strong comparison, so weak tags never match, like malformed ones.
+     *
+     * @return the versions the client accepts, or null if {@code If-Match} is absent or {@code *}
+     */
+    public static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            versions.add(parseTag(tag.trim()));
+        }
+        return versions;
+    }
+
+    private static long parseTag(String tag) {
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return UNMATCHABLE_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+}
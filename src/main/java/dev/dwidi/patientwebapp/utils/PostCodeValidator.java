@@ -8,11 +8,20 @@ public class PostCodeValidator {
 
     }
     public static void validatePostcode(String postcode, String state) {
-        int postcodeInt;
-        try {
-            postcodeInt = Integer.parseInt(postcode);
-        } catch (NumberFormatException e) {
-            throw new InvalidPostcodeException("Invalid postcode format");
+        String error = postcodeError(postcode, state);
+        if (error != null) {
+            throw new InvalidPostcodeException(error);
+        }
+    }
+
+    /**
+     * Same check as {@link #validatePostcode} for callers that collect errors, returns the message or
+     * {@code null} for a valid postcode without throwing.
+     */
+    public static String postcodeError(String postcode, String state) {
+        int postcodeInt = parseDigits(postcode);
+        if (postcodeInt < 0) {
+            return "Invalid postcode format";
         }
 
         boolean isValid = switch (state) {
@@ -27,10 +36,22 @@ public class PostCodeValidator {
             default -> false;
         };
 
-        if (!isValid) {
-            throw new InvalidPostcodeException(
-                    String.format("Invalid postcode %s for state %s", postcode, state)
-            );
+        return isValid ? null : "Invalid postcode " + postcode + " for state " + state;
+    }
+
+    // -1 for anything but up to 9 ASCII digits, instead of catching NumberFormatException
+    private static int parseDigits(String postcode) {
+        if (postcode == null || postcode.isEmpty() || postcode.length() > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < postcode.length(); i++) {
+            char c = postcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
         }
+        return value;
     }
 }
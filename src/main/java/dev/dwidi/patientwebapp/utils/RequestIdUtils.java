@@ -1,14 +1,60 @@
 package dev.dwidi.patientwebapp.utils;
 
+import org.slf4j.MDC;
+
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * One correlation id per request. {@code RequestIdFilter} binds it to the MDC for the request thread, so
+ * logs, {@code BaseResponse.requestId} and the {@value #REQUEST_ID_HEADER} response header all carry the
+ * same value.
+ */
 public class RequestIdUtils {
 
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final int MAX_LENGTH = 64;
+
     private RequestIdUtils() {
     }
 
-    public static String generateRequestId() {
-        return UUID.randomUUID().toString();
+    /**
+     * The id of the request running on this thread, or a fresh one for work outside a request.
+     */
+    public static String currentRequestId() {
+        String requestId = MDC.get(MDC_KEY);
+        return requestId != null ? requestId : newRequestId();
     }
-}
 
+    /**
+     * A random UUID in the usual format. Drawn from {@link ThreadLocalRandom} rather than
+     * {@link UUID#randomUUID()}, which takes a shared {@code SecureRandom} on every call, an id only has to
+     * be unique, not unpredictable.
+     */
+    public static String newRequestId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * Whether an inbound id can be reused as is. Anything longer or with other characters is replaced
+     * rather than written into logs and responses.
+     */
+    public static boolean isValid(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '-' || c == '_' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
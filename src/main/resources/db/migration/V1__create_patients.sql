@@ -0,0 +1,19 @@
+-- Schema as previously generated by Hibernate. Existing databases are baselined at this version.
+CREATE SEQUENCE IF NOT EXISTS patient_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS patients
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pid           VARCHAR(255) NOT NULL UNIQUE,
+    first_name    VARCHAR(100) NOT NULL,
+    last_name     VARCHAR(100) NOT NULL,
+    date_of_birth DATE         NOT NULL,
+    gender        VARCHAR(10)  NOT NULL,
+    address       VARCHAR(255) NOT NULL,
+    suburb        VARCHAR(100) NOT NULL,
+    state         VARCHAR(3)   NOT NULL,
+    postcode      VARCHAR(4)   NOT NULL,
+    phone_number  VARCHAR(15)  NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6)
+);
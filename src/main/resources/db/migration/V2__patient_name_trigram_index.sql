@@ -0,0 +1,9 @@
+-- Trigram indexes let the planner answer lower(name) LIKE '%term%' without a sequential scan.
+-- The indexed expressions must match the predicate built in PaginationServiceImpl.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_patients_first_name_trgm
+    ON patients USING gin (lower(first_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_patients_last_name_trgm
+    ON patients USING gin (lower(last_name) gin_trgm_ops);
@@ -0,0 +1,11 @@
+-- Ids are now allocated by Hibernate from patient_id_seq in blocks of 50 (pooled optimizer),
+-- which allows JDBC batch inserts. The identity column is replaced by a sequence default so
+-- that rows inserted outside Hibernate draw from the same sequence.
+ALTER TABLE patients ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER SEQUENCE patient_id_seq INCREMENT BY 50 OWNED BY patients.id;
+
+-- The pooled optimizer hands out (value - 49 .. value), so leave a full block above the current maximum
+SELECT setval('patient_id_seq', COALESCE((SELECT MAX(id) FROM patients), 0) + 50);
+
+ALTER TABLE patients ALTER COLUMN id SET DEFAULT nextval('patient_id_seq');
@@ -0,0 +1,18 @@
+-- B-tree indexes for every /search filter and sort. Sorts always tie-break on id in the same direction
+-- (see PaginationServiceImpl.createSort), so each index ends with id and serves both ASC and DESC scans.
+-- The created_at indexes INCLUDE the list columns so list projections can be answered by index-only scans.
+-- CONCURRENTLY keeps the table writable while the indexes build; Flyway runs this script outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_state_created_at
+    ON patients (state, created_at DESC, id DESC) INCLUDE (pid, first_name, last_name);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_created_at
+    ON patients (created_at DESC, id DESC) INCLUDE (pid, first_name, last_name, state);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_first_name
+    ON patients (first_name, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_last_name
+    ON patients (last_name, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_date_of_birth
+    ON patients (date_of_birth, id);
@@ -0,0 +1,3 @@
+-- Optimistic locking version, exposed to clients as the ETag of a patient.
+-- A constant default is stored in the catalog, so existing rows are not rewritten.
+ALTER TABLE patients ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,169 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnownPidFilterTest {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final long NOW = Instant.parse("2025-06-01T00:00:00Z").toEpochMilli();
+    private static final Duration SAFETY_MARGIN = Duration.ofMinutes(5);
+    private static final int NODE_ID = 3;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private KnownPidFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong(NOW);
+        filter = filter(true, 1000);
+    }
+
+    @Test
+    void isAbsent_NeverBeforeLoaded() {
+        assertFalse(filter.isAbsent(pid(NOW - 3_600_000, 1, 1)));
+        assertEquals(1, lookups("uncovered"));
+    }
+
+    @Test
+    void isAbsent_ForUnknownPidIssuedBeforeLoad() {
+        String known = pid(NOW - 3_600_000, 1, 1);
+        filter.add(known);
+        filter.loaded(NOW);
+
+        assertFalse(filter.isAbsent(known));
+        assertTrue(filter.isAbsent(pid(NOW - 3_600_000, 1, 2)));
+        assertEquals(1, lookups("possible"));
+        assertEquals(1, lookups("absent"));
+    }
+
+    @Test
+    void isAbsent_NotTrustedForOtherNodesWithinSafetyMargin() {
+        filter.loaded(NOW);
+        clock.set(NOW + 60_000);
+
+        // Might have been committed by another node after the load read the table
+        assertFalse(filter.isAbsent(pid(NOW - SAFETY_MARGIN.toMillis() + 1, 1, 1)));
+        assertFalse(filter.isAbsent(pid(NOW + 30_000, 1, 1)));
+        assertTrue(filter.isAbsent(pid(NOW - SAFETY_MARGIN.toMillis(), 1, 1)));
+    }
+
+    @Test
+    void isAbsent_TrustedForOwnPidsIssuedSinceStart() {
+        filter.loaded(NOW);
+        String issued = pid(NOW + 30_000, NODE_ID, 1);
+        filter.add(issued);
+
+        assertFalse(filter.isAbsent(issued));
+        assertTrue(filter.isAbsent(pid(NOW + 30_000, NODE_ID, 2)));
+        // Issued by an earlier run of this node, only the load can know about it
+        assertFalse(filter.isAbsent(pid(NOW - 1, NODE_ID, 1)));
+    }
+
+    @Test
+    void isAbsent_NeverForLegacyPid() {
+        filter.add("123456789012");
+        filter.loaded(NOW);
+
+        // Nodes still on an older version may have issued it after the load
+        assertFalse(filter.isAbsent("123456789012"));
+        assertFalse(filter.isAbsent("210987654321"));
+        assertEquals(2, lookups("uncovered"));
+    }
+
+    @Test
+    void isAbsent_NotTrustedForOwnNodeIdWhenUnset() {
+        KnownPidFilter unset = new KnownPidFilter(null, meterRegistry, true, null, 1000, 0.01, SAFETY_MARGIN, 1000,
+                System::currentTimeMillis);
+        unset.loaded(System.currentTimeMillis());
+        // Two instances left on the default node id
+        PidGenerator thisInstance = new PidGenerator(0);
+        PidGenerator otherInstance = new PidGenerator(0);
+
+        String issued = thisInstance.generate();
+        unset.add(issued);
+
+        assertFalse(unset.isAbsent(issued));
+        assertFalse(unset.isAbsent(otherInstance.generate()));
+        assertEquals(0, lookups("absent"));
+    }
+
+    @Test
+    void isAbsent_NotTrustedForAnotherNodeId() {
+        KnownPidFilter ownNode = new KnownPidFilter(null, meterRegistry, true, NODE_ID, 1000, 0.01, SAFETY_MARGIN,
+                1000, System::currentTimeMillis);
+        ownNode.loaded(System.currentTimeMillis());
+        PidGenerator thisInstance = new PidGenerator(NODE_ID);
+        PidGenerator otherInstance = new PidGenerator(NODE_ID + 1);
+
+        thisInstance.generate();
+
+        assertTrue(ownNode.isAbsent(thisInstance.generate()));
+        assertFalse(ownNode.isAbsent(otherInstance.generate()));
+    }
+
+    @Test
+    void recordMiss_CountsOnlyCoveredPids() {
+        filter.recordMiss(pid(NOW - 3_600_000, 1, 1));
+        filter.loaded(NOW);
+        filter.recordMiss(pid(NOW - 3_600_000, 1, 1));
+        filter.recordMiss(pid(NOW + 30_000, 1, 1));
+
+        assertEquals(1, meterRegistry.get("patient.pid.filter.false.positives").counter().count());
+    }
+
+    @Test
+    void add_GrowsPastExpectedInsertionsWithoutFalseNegatives() {
+        int added = 20_000;
+        for (int i = 0; i < added; i++) {
+            filter.add(pid(NOW - 3_600_000 + i, 1, 0));
+        }
+        filter.loaded(NOW);
+
+        for (int i = 0; i < added; i++) {
+            assertFalse(filter.isAbsent(pid(NOW - 3_600_000 + i, 1, 0)));
+            filter.isAbsent(pid(NOW - 3_600_000 + i, 2, 0));
+        }
+        double falsePositives = lookups("possible") - added;
+
+        // An add that is already a false positive is taken for a duplicate and not counted
+        double entries = meterRegistry.get("patient.pid.filter.entries").gauge().value();
+        assertTrue(entries > added * 0.97 && entries <= added, () -> "Entries: " + entries);
+        assertTrue(meterRegistry.get("patient.pid.filter.expected.false.positive.rate").gauge().value() < 0.02);
+        assertTrue(falsePositives < added * 0.02, () -> "False positives: " + falsePositives);
+        assertTrue(meterRegistry.get("patient.pid.filter.memory").gauge().value() > 20_000);
+    }
+
+    @Test
+    void disabled_NeverAnswers() {
+        KnownPidFilter disabled = filter(false, 1000);
+        disabled.loaded(NOW);
+
+        assertFalse(disabled.isAbsent(pid(NOW - 3_600_000, 1, 1)));
+        assertEquals(0, meterRegistry.get("patient.pid.filter.entries").gauge().value());
+    }
+
+    private KnownPidFilter filter(boolean enabled, long expectedInsertions) {
+        meterRegistry.clear();
+        return new KnownPidFilter(null, meterRegistry, enabled, NODE_ID, expectedInsertions, 0.01,
+                SAFETY_MARGIN, 1000, clock::get);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("patient.pid.filter.lookups").tag("result", result).counter().count();
+    }
+
+    private static String pid(long issuedAt, int nodeId, int sequence) {
+        return String.format("%016x", ((issuedAt - EPOCH) << 22) | ((long) nodeId << 12) | sequence);
+    }
+}
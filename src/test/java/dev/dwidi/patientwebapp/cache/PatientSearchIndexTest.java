@@ -0,0 +1,264 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientSearchIndexTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private PatientSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new PatientSearchIndex(null, meterRegistry, true, 4, 100, 1);
+
+        // Loaded out of order on purpose, rows are kept sorted by (createdAt, id)
+        PatientColumns columns = new PatientColumns(4);
+        put(columns, patient(3, "Emma", "Smith", AustralianState.VIC, JAN_1.plusDays(2)));
+        put(columns, patient(1, "James", "Brown", AustralianState.NSW, JAN_1));
+        put(columns, patient(2, "Olivia", "Smithers", AustralianState.NSW, JAN_1.plusDays(1)));
+        put(columns, patient(4, "John", "Jones", AustralianState.NSW, JAN_1.plusDays(1)));
+        put(columns, patient(5, "Mia", "Lee", AustralianState.QLD, JAN_1.plusDays(3)));
+        index.beginLoad();
+        index.finishLoad(columns);
+    }
+
+    @Test
+    void search_NewestFirstWithExactCount() {
+        PatientSearchIndex.Result result = index.search(query().limit(2).build());
+
+        assertEquals(List.of(5L, 3L), ids(result));
+        assertTrue(result.hasNext());
+        assertEquals(5, result.total());
+    }
+
+    @Test
+    void search_PagesByOffset() {
+        PatientSearchIndex.Result result = index.search(query().offset(2).limit(2).build());
+
+        // Equal createdAt is broken by id, in the same direction
+        assertEquals(List.of(4L, 2L), ids(result));
+        assertTrue(result.hasNext());
+        assertEquals(-1, index.search(query().offset(2).limit(2).count(false).build()).total());
+    }
+
+    @Test
+    void search_FiltersByNameStateAndDateRange() {
+        assertEquals(List.of(3L, 2L), ids(index.search(query().name(" SMITH ").build())));
+        assertEquals(List.of(4L, 2L, 1L), ids(index.search(query().state(AustralianState.NSW).build())));
+        assertEquals(List.of(2L), ids(index.search(query().name("liv").state(AustralianState.NSW)
+                .startDate(LocalDate.of(2024, 1, 2)).endDate(LocalDate.of(2024, 1, 2)).build())));
+
+        PatientSearchIndex.Result byDate = index.search(query()
+                .startDate(LocalDate.of(2024, 1, 2)).endDate(LocalDate.of(2024, 1, 3)).build());
+        assertEquals(List.of(3L, 4L, 2L), ids(byDate));
+        assertEquals(3, byDate.total());
+    }
+
+    @Test
+    void search_ResumesAfterCursorInEitherDirection() {
+        LocalDateTime jan2 = JAN_1.plusDays(1);
+
+        assertEquals(List.of(2L, 1L), ids(index.search(query().afterCreatedAt(jan2).afterId(4L).build())));
+        assertEquals(List.of(4L, 3L, 5L), ids(index.search(query().ascending(true)
+                .afterCreatedAt(jan2).afterId(2L).build())));
+    }
+
+    @Test
+    void search_ReturnsSummaryColumns() {
+        PatientSearchIndex.Hit hit = index.search(query().limit(1).build()).hits().get(0);
+
+        assertEquals(5L, hit.id());
+        assertEquals(pid(5), hit.pid());
+        assertEquals("Mia", hit.firstName());
+        assertEquals("Lee", hit.lastName());
+        assertEquals(AustralianState.QLD, hit.state());
+    }
+
+    @Test
+    void put_InsertsAndUpdatesInPlace() {
+        Patient created = patient(6, "Ava", "King", AustralianState.WA, JAN_1.plusDays(1).plusNanos(1_400));
+        index.put(created);
+
+        // The row read back from Postgres holds createdAt to the microsecond
+        Patient updated = patient(6, "Ava", "Wright", AustralianState.TAS, JAN_1.plusDays(1).plusNanos(1_000));
+        updated.setVersion(1L);
+        index.put(updated);
+
+        assertEquals(List.of(6L, 4L, 2L), ids(index.search(query().startDate(LocalDate.of(2024, 1, 2))
+                .endDate(LocalDate.of(2024, 1, 2)).build())));
+        assertEquals(List.of(6L), ids(index.search(query().name("wright").build())));
+        assertEquals(6.0, meterRegistry.get("patient.search.index.rows").gauge().value());
+    }
+
+    @Test
+    void put_IgnoresOlderVersions() {
+        Patient current = patient(1, "James", "Baker", AustralianState.NSW, JAN_1);
+        current.setVersion(2L);
+        index.put(current);
+
+        Patient stale = patient(1, "James", "Allen", AustralianState.NSW, JAN_1);
+        stale.setVersion(1L);
+        index.put(stale);
+
+        assertEquals(List.of(1L), ids(index.search(query().name("baker").build())));
+        assertTrue(index.search(query().name("allen").build()).hits().isEmpty());
+    }
+
+    @Test
+    void remove_HidesPatient() {
+        index.remove(pid(3));
+        index.remove(pid(3));
+
+        assertEquals(List.of(5L, 4L, 2L, 1L), ids(index.search(query().build())));
+        assertEquals(4, index.search(query().state(null).build()).total());
+
+        // A late update for a deleted patient does not bring it back
+        Patient late = patient(3, "Emma", "Smith", AustralianState.VIC, JAN_1.plusDays(2));
+        late.setVersion(5L);
+        index.put(late);
+        assertEquals(4, index.search(query().build()).total());
+    }
+
+    @Test
+    void remove_LegacyPid() {
+        Patient legacy = patient(7, "Harper", "Hill", AustralianState.SA, JAN_1.plusDays(4));
+        legacy.setPid("20241101000001");
+        index.put(legacy);
+        assertEquals("20241101000001", index.search(query().limit(1).build()).hits().get(0).pid());
+
+        index.remove("20241101000001");
+        assertEquals(5L, index.search(query().limit(1).build()).hits().get(0).id());
+    }
+
+    @Test
+    void finishLoad_ReplaysWritesMadeDuringLoad() {
+        index.beginLoad();
+        index.put(patient(8, "Zoe", "Adams", AustralianState.NT, JAN_1.plusDays(5)));
+        index.remove(pid(5));
+
+        // The snapshot was taken before both writes
+        PatientColumns reloaded = new PatientColumns(4);
+        put(reloaded, patient(1, "James", "Brown", AustralianState.NSW, JAN_1));
+        put(reloaded, patient(5, "Mia", "Lee", AustralianState.QLD, JAN_1.plusDays(3)));
+        index.finishLoad(reloaded);
+
+        assertEquals(List.of(8L, 1L), ids(index.search(query().build())));
+    }
+
+    @Test
+    void finishLoad_KeepsCurrentColumnsWhenLoadFails() {
+        index.beginLoad();
+        index.finishLoad(null);
+
+        assertTrue(index.isLoaded());
+        assertEquals(5, index.search(query().build()).total());
+    }
+
+    @Test
+    void search_SegmentedCountMatchesFilteringEveryRow() {
+        int rows = 3 * PatientColumns.SEGMENT_ROWS + 123;
+        String[] lastNames = {"Smith", "Brown", "Lee", "Mitchell", "Young"};
+        AustralianState[] states = AustralianState.values();
+        List<Patient> patients = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            patients.add(patient(i, "First", lastNames[i * 7 % lastNames.length], states[i * 13 % states.length],
+                    JAN_1.plusSeconds(i / 3)));
+        }
+
+        List<PatientSearchIndex> indexes = new ArrayList<>();
+        for (int parallelism : new int[]{1, 4}) {
+            PatientSearchIndex index = new PatientSearchIndex(null, new SimpleMeterRegistry(), true, 4, 100, parallelism);
+            PatientColumns columns = new PatientColumns(rows);
+            patients.forEach(patient -> put(columns, patient));
+            index.beginLoad();
+            index.finishLoad(columns);
+            indexes.add(index);
+        }
+
+        Map<PatientSearchIndex.Query.QueryBuilder, Predicate<Patient>> filters = Map.of(
+                query().state(AustralianState.TAS),
+                patient -> patient.getAddress().getState() == AustralianState.TAS,
+                query().name("mit"),
+                patient -> patient.getLastName().equals("Smith") || patient.getLastName().equals("Mitchell"),
+                query().name("o").state(AustralianState.NSW),
+                patient -> patient.getAddress().getState() == AustralianState.NSW
+                        && (patient.getLastName().equals("Brown") || patient.getLastName().equals("Young")));
+
+        for (Map.Entry<PatientSearchIndex.Query.QueryBuilder, Predicate<Patient>> filter : filters.entrySet()) {
+            for (boolean ascending : new boolean[]{false, true}) {
+                Comparator<Patient> order = Comparator.comparing(Patient::getCreatedAt).thenComparing(Patient::getId);
+                List<Long> matches = patients.stream()
+                        .filter(filter.getValue())
+                        .sorted(ascending ? order : order.reversed())
+                        .map(Patient::getId)
+                        .toList();
+
+                for (int offset : new int[]{0, 7, PatientColumns.SEGMENT_ROWS / 8 - 3, rows / 5, rows}) {
+                    PatientSearchIndex.Query query = filter.getKey().ascending(ascending).offset(offset).limit(25).build();
+                    List<Long> page = matches.subList(Math.min(offset, matches.size()),
+                            Math.min(offset + 25, matches.size()));
+
+                    for (PatientSearchIndex index : indexes) {
+                        PatientSearchIndex.Result result = index.search(query);
+                        assertEquals(matches.size(), result.total(), query::toString);
+                        assertEquals(page, ids(result), query::toString);
+                        assertEquals(offset + 25 < matches.size(), result.hasNext(), query::toString);
+                    }
+                }
+            }
+        }
+        indexes.forEach(PatientSearchIndex::shutdown);
+    }
+
+    private static PatientSearchIndex.Query.QueryBuilder query() {
+        return PatientSearchIndex.Query.builder().limit(10).count(true);
+    }
+
+    private static List<Long> ids(PatientSearchIndex.Result result) {
+        return result.hits().stream().map(PatientSearchIndex.Hit::id).toList();
+    }
+
+    private static void put(PatientColumns columns, Patient patient) {
+        columns.put(patient.getId(), patient.getPid(), patient.getFirstName(), patient.getLastName(),
+                patient.getAddress().getState(), patient.getCreatedAt(), 0);
+    }
+
+    private static String pid(long id) {
+        return PidGenerator.format(0x1000 + id);
+    }
+
+    private static Patient patient(long id, String firstName, String lastName, AustralianState state,
+                                   LocalDateTime createdAt) {
+        AustralianAddress address = new AustralianAddress();
+        address.setState(state);
+
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setPid(pid(id));
+        patient.setFirstName(firstName);
+        patient.setLastName(lastName);
+        patient.setAddress(address);
+        patient.setCreatedAt(createdAt);
+        patient.setVersion(0L);
+        return patient;
+    }
+}
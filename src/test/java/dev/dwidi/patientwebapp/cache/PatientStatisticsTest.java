@@ -0,0 +1,161 @@
+package dev.dwidi.patientwebapp.cache;
+
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.repository.PatientFacets;
+import dev.dwidi.patientwebapp.repository.UpdatedPatient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientStatisticsTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private PatientStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new PatientStatistics(null);
+
+        PatientCounts counts = new PatientCounts();
+        counts.add(facets(AustralianState.NSW, Gender.MALE, LocalDate.of(1990, 5, 15), JAN_1), 1);
+        counts.add(facets(AustralianState.NSW, Gender.FEMALE, LocalDate.of(1950, 2, 1), JAN_1), 1);
+        counts.add(facets(AustralianState.VIC, Gender.FEMALE, LocalDate.of(2015, 8, 30), JAN_1.plusDays(1)), 1);
+        statistics.beginLoad();
+        statistics.finishLoad(counts);
+    }
+
+    @Test
+    void stats_NullUntilLoaded() {
+        PatientStatistics unloaded = new PatientStatistics(null);
+
+        assertFalse(unloaded.isLoaded());
+        assertNull(unloaded.stats());
+    }
+
+    @Test
+    void stats_CountsEveryKey() {
+        PatientStatsResponse stats = statistics.stats();
+
+        assertEquals(3, stats.getTotal());
+        assertEquals(2, stats.getByState().get(AustralianState.NSW));
+        assertEquals(0, stats.getByState().get(AustralianState.TAS));
+        assertEquals(List.of(AustralianState.values()), List.copyOf(stats.getByState().keySet()));
+        assertEquals(Map.of(Gender.MALE, 1L, Gender.FEMALE, 2L), stats.getByGender());
+        assertEquals(List.of(PatientCounts.AGE_BANDS), List.copyOf(stats.getByAgeBand().keySet()));
+        assertEquals(Map.of(JAN_1.toLocalDate(), 2L, JAN_1.toLocalDate().plusDays(1), 1L), stats.getByCreatedDate());
+        assertEquals(LocalDate.now(), stats.getAsOf());
+        assertSame(stats, statistics.stats());
+    }
+
+    @Test
+    void writes_MovePatientsBetweenCounts() {
+        Patient created = patient(AustralianState.QLD, Gender.MALE, LocalDate.of(1980, 1, 1), JAN_1.plusDays(2));
+        Patient moved = patient(AustralianState.VIC, Gender.MALE, LocalDate.of(1990, 5, 15), JAN_1);
+        PatientStatsResponse before = statistics.stats();
+
+        try (PatientStatistics.Write write = statistics.beginWrite()) {
+            write.created(created);
+            write.updated(new UpdatedPatient(moved,
+                    facets(AustralianState.NSW, Gender.MALE, LocalDate.of(1990, 5, 15), JAN_1)));
+            write.deleted(facets(AustralianState.VIC, Gender.FEMALE, LocalDate.of(2015, 8, 30), JAN_1.plusDays(1)));
+        }
+        PatientStatsResponse stats = statistics.stats();
+
+        assertNotSame(before, stats);
+        assertEquals(3, stats.getTotal());
+        assertEquals(1, stats.getByState().get(AustralianState.NSW));
+        assertEquals(1, stats.getByState().get(AustralianState.VIC));
+        assertEquals(1, stats.getByState().get(AustralianState.QLD));
+        assertEquals(Map.of(Gender.MALE, 2L, Gender.FEMALE, 1L), stats.getByGender());
+        // Days without patients left are dropped
+        assertEquals(Map.of(JAN_1.toLocalDate(), 2L, JAN_1.toLocalDate().plusDays(2), 1L), stats.getByCreatedDate());
+    }
+
+    @Test
+    void updated_WithSameFacetsKeepsResponse() {
+        Patient renamed = patient(AustralianState.NSW, Gender.MALE, LocalDate.of(1990, 5, 15), JAN_1);
+        PatientStatsResponse before = statistics.stats();
+
+        try (PatientStatistics.Write write = statistics.beginWrite()) {
+            write.updated(new UpdatedPatient(renamed, PatientFacets.of(renamed)));
+        }
+
+        assertSame(before, statistics.stats());
+    }
+
+    @Test
+    void toResponse_AgeBandsMoveWithTheDate() {
+        PatientCounts counts = new PatientCounts();
+        counts.add(facets(AustralianState.SA, Gender.FEMALE, LocalDate.of(2006, 3, 10), JAN_1), 1);
+        counts.add(facets(AustralianState.SA, Gender.MALE, LocalDate.of(2000, 2, 29), JAN_1), 1);
+        counts.add(facets(AustralianState.SA, Gender.MALE, LocalDate.of(1944, 3, 11), JAN_1), 1);
+
+        Map<String, Long> bands = counts.toResponse(LocalDate.of(2024, 3, 9)).getByAgeBand();
+        assertEquals(Map.of("0-17", 1L, "18-29", 1L, "30-44", 0L, "45-64", 0L, "65-79", 1L, "80+", 0L), bands);
+
+        // Birthdays on the day count in the new band, and changes after the recount use the new bands
+        counts.add(facets(AustralianState.SA, Gender.MALE, LocalDate.of(1944, 3, 10), JAN_1), 1);
+        bands = counts.toResponse(LocalDate.of(2024, 3, 10)).getByAgeBand();
+        assertEquals(Map.of("0-17", 0L, "18-29", 2L, "30-44", 0L, "45-64", 0L, "65-79", 1L, "80+", 1L), bands);
+
+        counts.add(facets(AustralianState.SA, Gender.MALE, LocalDate.of(1944, 3, 10), JAN_1), -1);
+        assertEquals(0L, counts.toResponse(LocalDate.of(2024, 3, 10)).getByAgeBand().get("80+"));
+    }
+
+    @Test
+    void finishLoad_ReplaysWritesMadeDuringLoad() {
+        statistics.beginLoad();
+        try (PatientStatistics.Write write = statistics.beginWrite()) {
+            write.created(patient(AustralianState.WA, Gender.FEMALE, LocalDate.of(1985, 6, 1), JAN_1.plusDays(3)));
+        }
+        assertEquals(4, statistics.stats().getTotal());
+
+        // The snapshot was taken before the write
+        PatientCounts reloaded = new PatientCounts();
+        reloaded.addTotal(10);
+        reloaded.addState(AustralianState.WA, 10);
+        statistics.finishLoad(reloaded);
+
+        PatientStatsResponse stats = statistics.stats();
+        assertEquals(11, stats.getTotal());
+        assertEquals(11, stats.getByState().get(AustralianState.WA));
+    }
+
+    @Test
+    void finishLoad_KeepsCurrentCountsWhenLoadFails() {
+        statistics.beginLoad();
+        statistics.finishLoad(null);
+
+        assertTrue(statistics.isLoaded());
+        assertEquals(3, statistics.stats().getTotal());
+    }
+
+    private static PatientFacets facets(AustralianState state, Gender gender, LocalDate dateOfBirth,
+                                        LocalDateTime createdAt) {
+        return new PatientFacets(state, gender, dateOfBirth, createdAt);
+    }
+
+    private static Patient patient(AustralianState state, Gender gender, LocalDate dateOfBirth,
+                                   LocalDateTime createdAt) {
+        AustralianAddress address = new AustralianAddress();
+        address.setState(state);
+
+        Patient patient = new Patient();
+        patient.setAddress(address);
+        patient.setGender(gender);
+        patient.setDateOfBirth(dateOfBirth);
+        patient.setCreatedAt(createdAt);
+        return patient;
+    }
+}
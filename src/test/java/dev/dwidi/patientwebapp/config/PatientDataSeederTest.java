@@ -0,0 +1,83 @@
+package dev.dwidi.patientwebapp.config;
+
+import dev.dwidi.patientwebapp.cache.KnownPidFilter;
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.service.PidGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientDataSeederTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private KnownPidFilter knownPidFilter;
+
+    @Mock
+    private PatientSearchIndex patientSearchIndex;
+
+    @Mock
+    private PatientStatistics patientStatistics;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Test
+    void onApplicationReady_DisabledSkipsWithoutTouchingTheDatabase() {
+        PatientDataSeeder seeder = seeder(false);
+        assertEquals(PatientDataSeeder.State.PENDING, seeder.getState());
+
+        seeder.onApplicationReady();
+
+        assertEquals(PatientDataSeeder.State.SKIPPED, seeder.getState());
+        verifyNoInteractions(patientRepository, dataSource, patientSearchIndex, patientStatistics);
+    }
+
+    @Test
+    void onApplicationReady_SkipsPopulatedDatabase() throws InterruptedException {
+        when(patientRepository.count()).thenReturn(10L);
+        PatientDataSeeder seeder = seeder(true);
+
+        seeder.onApplicationReady();
+
+        assertEquals(PatientDataSeeder.State.SKIPPED, awaitEnd(seeder));
+        verifyNoInteractions(dataSource, patientSearchIndex, patientStatistics);
+    }
+
+    @Test
+    void onApplicationReady_FailureStillEndsSeeding() throws InterruptedException {
+        when(patientRepository.count()).thenThrow(new IllegalStateException("database unavailable"));
+        PatientDataSeeder seeder = seeder(true);
+
+        seeder.onApplicationReady();
+
+        assertEquals(PatientDataSeeder.State.FAILED, awaitEnd(seeder));
+    }
+
+    private PatientDataSeeder seeder(boolean enabled) {
+        return new PatientDataSeeder(patientRepository, new PidGenerator(0), knownPidFilter, patientSearchIndex,
+                patientStatistics, dataSource, enabled, 10, 1);
+    }
+
+    private static PatientDataSeeder.State awaitEnd(PatientDataSeeder seeder) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            PatientDataSeeder.State state = seeder.getState();
+            if (state != PatientDataSeeder.State.PENDING && state != PatientDataSeeder.State.RUNNING) {
+                return state;
+            }
+            Thread.sleep(10);
+        }
+        return seeder.getState();
+    }
+}
@@ -0,0 +1,45 @@
+package dev.dwidi.patientwebapp.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeederHealthIndicatorTest {
+
+    @Mock
+    private PatientDataSeeder patientDataSeeder;
+
+    @InjectMocks
+    private SeederHealthIndicator seederHealthIndicator;
+
+    @ParameterizedTest
+    @EnumSource(value = PatientDataSeeder.State.class, names = {"PENDING", "RUNNING"})
+    void health_OutOfServiceWhileSeeding(PatientDataSeeder.State state) {
+        when(patientDataSeeder.getState()).thenReturn(state);
+
+        Health health = seederHealthIndicator.health();
+
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(state, health.getDetails().get("state"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PatientDataSeeder.State.class, names = {"COMPLETED", "SKIPPED", "FAILED"})
+    void health_UpOnceSeedingHasEnded(PatientDataSeeder.State state) {
+        when(patientDataSeeder.getState()).thenReturn(state);
+
+        Health health = seederHealthIndicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(state, health.getDetails().get("state"));
+    }
+}
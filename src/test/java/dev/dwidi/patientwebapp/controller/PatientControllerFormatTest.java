@@ -0,0 +1,167 @@
+package dev.dwidi.patientwebapp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.dwidi.patientwebapp.config.ResponseFormatConfig;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientRequest;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.service.PaginationService;
+import dev.dwidi.patientwebapp.service.PatientExportService;
+import dev.dwidi.patientwebapp.service.PatientService;
+import dev.dwidi.patientwebapp.service.PatientStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation of the binary formats against the real controller, with the converters built the
+ * way {@link ResponseFormatConfig} builds them.
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientControllerFormatTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private PaginationService paginationService;
+
+    @Mock
+    private PatientExportService patientExportService;
+
+    @Mock
+    private PatientStatsService patientStatsService;
+
+    private MockMvc mockMvc;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private PatientResponse patientResponse;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper jsonMapper = builder().build();
+        ResponseFormatConfig config = new ResponseFormatConfig(jsonMapper);
+        MappingJackson2CborHttpMessageConverter cbor = config.cborHttpMessageConverter(builder());
+        MappingJackson2SmileHttpMessageConverter smile = config.smileHttpMessageConverter(builder());
+        cborMapper = cbor.getObjectMapper();
+        smileMapper = smile.getObjectMapper();
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new PatientController(patientService, paginationService, patientExportService,
+                        patientStatsService))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(jsonMapper), smile, cbor)
+                .build();
+
+        patientResponse = PatientResponse.builder()
+                .id(1L)
+                .pid("0521971f12400000")
+                .firstName("John")
+                .lastName("Smith")
+                .dateOfBirth(LocalDate.of(1980, 5, 17))
+                .gender(Gender.MALE)
+                .address("1 George Street")
+                .suburb("Sydney")
+                .state(AustralianState.NSW)
+                .postcode("2000")
+                .phoneNumber("0412345678")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    void createPatient_ReadsAndWritesCbor() throws Exception {
+        when(patientService.createPatient(any(PatientRequest.class)))
+                .thenReturn(new BaseResponse<>(201, "Patient created successfully", patientResponse, "test"));
+        PatientRequest request = new PatientRequest("John", "Smith", LocalDate.of(1980, 5, 17), Gender.MALE,
+                "1 George Street", "Sydney", AustralianState.NSW, "2000", "0412345678");
+
+        MvcResult result = mockMvc.perform(post("/api/v1/patient/create")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        ArgumentCaptor<PatientRequest> captor = ArgumentCaptor.forClass(PatientRequest.class);
+        verify(patientService).createPatient(captor.capture());
+        assertEquals(request, captor.getValue());
+
+        JsonNode body = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("0521971f12400000", body.get("data").get("pid").asText());
+        // Same data model as JSON, dates are ISO text rather than arrays
+        assertEquals("1980-05-17", body.get("data").get("dateOfBirth").asText());
+        assertEquals("2024-01-01T09:00:00", body.get("data").get("createdAt").asText());
+    }
+
+    @Test
+    void getPaginatedPatients_WritesSmile() throws Exception {
+        PaginationResponse<PatientResponse> page = PaginationResponse.<PatientResponse>builder()
+                .content(List.of(patientResponse))
+                .page(0)
+                .size(10)
+                .last(true)
+                .hasNext(false)
+                .countMode(CountMode.NONE)
+                .build();
+        when(paginationService.getPatientsByPage(any(PaginationRequest.class)))
+                .thenReturn(new BaseResponse<>(200, "Patients retrieved successfully", page, "test"));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/patient/search").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        JsonNode body = smileMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("John", body.get("data").get("content").get(0).get("firstName").asText());
+        assertEquals("NONE", body.get("data").get("countMode").asText());
+    }
+
+    @Test
+    void wildcardAccept_StaysJson() throws Exception {
+        when(patientService.getPatientByPID("0521971f12400000"))
+                .thenReturn(new BaseResponse<>(200, "Patient retrieved successfully", patientResponse, "test"));
+
+        mockMvc.perform(get("/api/v1/patient/0521971f12400000").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -3,9 +3,12 @@ package dev.dwidi.patientwebapp.controller;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
 import dev.dwidi.patientwebapp.dto.patient.*;
 import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.ExportFormat;
 import dev.dwidi.patientwebapp.enums.Gender;
 import dev.dwidi.patientwebapp.service.PaginationService;
+import dev.dwidi.patientwebapp.service.PatientExportService;
 import dev.dwidi.patientwebapp.service.PatientService;
+import dev.dwidi.patientwebapp.service.PatientStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,7 +16,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -34,6 +43,12 @@ class PatientControllerTest {
     @Mock
     private PaginationService paginationService;
 
+    @Mock
+    private PatientExportService patientExportService;
+
+    @Mock
+    private PatientStatsService patientStatsService;
+
     @InjectMocks
     private PatientController patientController;
 
@@ -104,29 +119,49 @@ class PatientControllerTest {
         verify(patientService, times(1)).createPatient(any(PatientRequest.class));
     }
 
+    @Test
+    void createPatients_Success() {
+        PatientBatchResponse batchResponse = PatientBatchResponse.builder()
+                .total(1)
+                .succeeded(1)
+                .failed(0)
+                .results(List.of(PatientBatchItemResult.builder().index(0).success(true).pid(testPid).build()))
+                .build();
+
+        when(patientService.createPatients(anyList()))
+                .thenReturn(new BaseResponse<>(HttpStatus.CREATED.value(), "Created 1 of 1 patients", batchResponse, "TEST-REQUEST-ID"));
+
+        BaseResponse<PatientBatchResponse> response = patientController.createPatients(List.of(patientRequest));
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.CREATED.value(), response.getStatusCode());
+        assertEquals(1, response.getData().getSucceeded());
+        verify(patientService, times(1)).createPatients(anyList());
+    }
+
     @Test
     void updatePatient_Success() {
-        when(patientService.updatePatient(anyString(), any(PatientUpdateRequest.class)))
+        when(patientService.updatePatient(anyString(), any(PatientUpdateRequest.class), isNull()))
                 .thenReturn(successResponse);
 
-        BaseResponse<PatientResponse> response = patientController.updatePatient(testPid, patientUpdateRequest);
+        BaseResponse<PatientResponse> response = patientController.updatePatient(testPid, null, patientUpdateRequest).getBody();
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
         assertEquals(patientResponse, response.getData());
-        verify(patientService, times(1)).updatePatient(eq(testPid), any(PatientUpdateRequest.class));
+        verify(patientService, times(1)).updatePatient(eq(testPid), any(PatientUpdateRequest.class), isNull());
     }
 
     @Test
     void deletePatient_Success() {
-        when(patientService.deletePatient(anyString()))
+        when(patientService.deletePatient(anyString(), isNull()))
                 .thenReturn(successResponse);
 
-        BaseResponse<PatientResponse> response = patientController.deletePatient(testPid);
+        BaseResponse<PatientResponse> response = patientController.deletePatient(testPid, null).getBody();
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
-        verify(patientService, times(1)).deletePatient(testPid);
+        verify(patientService, times(1)).deletePatient(testPid, null);
     }
 
     @Test
@@ -134,7 +169,7 @@ class PatientControllerTest {
         when(patientService.getPatientByPID(anyString()))
                 .thenReturn(successResponse);
 
-        BaseResponse<PatientResponse> response = patientController.getPatientByPID(testPid);
+        BaseResponse<PatientResponse> response = patientController.getPatientByPID(testPid, webRequest(null));
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
@@ -142,6 +177,101 @@ class PatientControllerTest {
         verify(patientService, times(1)).getPatientByPID(testPid);
     }
 
+    @Test
+    void getPatientByPID_SetsETagFromVersion() {
+        patientResponse.setVersion(3L);
+        when(patientService.getPatientByPID(testPid)).thenReturn(successResponse);
+        ServletWebRequest webRequest = webRequest(null);
+
+        BaseResponse<PatientResponse> response = patientController.getPatientByPID(testPid, webRequest);
+
+        assertNotNull(response);
+        assertEquals("\"3\"", webRequest.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getPatientByPID_NotModifiedWhenETagMatches() {
+        patientResponse.setVersion(3L);
+        when(patientService.getPatientByPID(testPid)).thenReturn(successResponse);
+        ServletWebRequest webRequest = webRequest("\"3\"");
+
+        BaseResponse<PatientResponse> response = patientController.getPatientByPID(testPid, webRequest);
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), webRequest.getResponse().getStatus());
+    }
+
+    @Test
+    void getPatientByPID_ReturnsBodyWhenETagIsStale() {
+        patientResponse.setVersion(4L);
+        when(patientService.getPatientByPID(testPid)).thenReturn(successResponse);
+        ServletWebRequest webRequest = webRequest("\"3\"");
+
+        BaseResponse<PatientResponse> response = patientController.getPatientByPID(testPid, webRequest);
+
+        assertEquals(patientResponse, response.getData());
+        assertEquals(HttpStatus.OK.value(), webRequest.getResponse().getStatus());
+    }
+
+    @Test
+    void updatePatient_SetsETagAndPassesIfMatchVersion() {
+        patientResponse.setVersion(3L);
+        when(patientService.updatePatient(testPid, patientUpdateRequest, List.of(2L))).thenReturn(successResponse);
+
+        ResponseEntity<BaseResponse<PatientResponse>> response =
+                patientController.updatePatient(testPid, "\"2\"", patientUpdateRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void updatePatient_PreconditionFailed() {
+        BaseResponse<PatientResponse> errorResponse = new BaseResponse<>(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Patient with PID: " + testPid + " has been modified since version 2",
+                null,
+                "TEST-REQUEST-ID"
+        );
+        when(patientService.updatePatient(testPid, patientUpdateRequest, List.of(2L))).thenReturn(errorResponse);
+
+        ResponseEntity<BaseResponse<PatientResponse>> response =
+                patientController.updatePatient(testPid, "\"2\"", patientUpdateRequest);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertEquals(errorResponse, response.getBody());
+    }
+
+    @Test
+    void deletePatient_MalformedIfMatchNeverMatches() {
+        when(patientService.deletePatient(testPid, List.of(-1L))).thenReturn(successResponse);
+
+        patientController.deletePatient(testPid, "2");
+
+        verify(patientService).deletePatient(testPid, List.of(-1L));
+    }
+
+    @Test
+    void updatePatient_PassesEveryVersionOfIfMatchList() {
+        patientResponse.setVersion(5L);
+        when(patientService.updatePatient(testPid, patientUpdateRequest, List.of(3L, 4L))).thenReturn(successResponse);
+
+        ResponseEntity<BaseResponse<PatientResponse>> response =
+                patientController.updatePatient(testPid, "\"3\", \"4\"", patientUpdateRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"5\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void deletePatient_WeakIfMatchNeverMatches() {
+        when(patientService.deletePatient(testPid, List.of(-1L, 2L))).thenReturn(successResponse);
+
+        patientController.deletePatient(testPid, "W/\"2\",\"2\"");
+
+        verify(patientService).deletePatient(testPid, List.of(-1L, 2L));
+    }
+
     @Test
     void getAllPatients_Success() {
         List<PatientResponse> patientList = Arrays.asList(patientResponse);
@@ -248,7 +378,7 @@ class PatientControllerTest {
         // Test the endpoint
         BaseResponse<PaginationResponse<PatientResponse>> response = patientController.getPaginatedPatients(
                 0, 10, "createdAt", "DESC", "Jennifer", AustralianState.QLD,
-                LocalDate.of(1977, 2, 17), LocalDate.of(1977, 2, 17));
+                LocalDate.of(1977, 2, 17), LocalDate.of(1977, 2, 17), null, null);
 
         // Verify the response
         assertNotNull(response);
@@ -302,16 +432,16 @@ class PatientControllerTest {
                 "TEST-REQUEST-ID"
         );
 
-        when(patientService.updatePatient(eq(nonExistentPid), any(PatientUpdateRequest.class)))
+        when(patientService.updatePatient(eq(nonExistentPid), any(PatientUpdateRequest.class), isNull()))
                 .thenReturn(errorResponse);
 
-        BaseResponse<PatientResponse> response = patientController.updatePatient(nonExistentPid, patientUpdateRequest);
+        BaseResponse<PatientResponse> response = patientController.updatePatient(nonExistentPid, null, patientUpdateRequest).getBody();
 
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
         assertEquals("Patient not found with PID: " + nonExistentPid, response.getMessage());
         assertNull(response.getData());
-        verify(patientService, times(1)).updatePatient(eq(nonExistentPid), any(PatientUpdateRequest.class));
+        verify(patientService, times(1)).updatePatient(eq(nonExistentPid), any(PatientUpdateRequest.class), isNull());
     }
 
     @Test
@@ -327,7 +457,7 @@ class PatientControllerTest {
         when(patientService.getPatientByPID(nonExistentPid))
                 .thenReturn(errorResponse);
 
-        BaseResponse<PatientResponse> response = patientController.getPatientByPID(nonExistentPid);
+        BaseResponse<PatientResponse> response = patientController.getPatientByPID(nonExistentPid, webRequest(null));
 
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
@@ -346,16 +476,16 @@ class PatientControllerTest {
                 "TEST-REQUEST-ID"
         );
 
-        when(patientService.deletePatient(nonExistentPid))
+        when(patientService.deletePatient(nonExistentPid, null))
                 .thenReturn(errorResponse);
 
-        BaseResponse<PatientResponse> response = patientController.deletePatient(nonExistentPid);
+        BaseResponse<PatientResponse> response = patientController.deletePatient(nonExistentPid, null).getBody();
 
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
         assertEquals("Patient not found with PID: " + nonExistentPid, response.getMessage());
         assertNull(response.getData());
-        verify(patientService, times(1)).deletePatient(nonExistentPid);
+        verify(patientService, times(1)).deletePatient(nonExistentPid, null);
     }
 
     @Test
@@ -400,7 +530,7 @@ class PatientControllerTest {
                 .thenReturn(errorResponse);
 
         BaseResponse<PaginationResponse<PatientResponse>> response = patientController.getPaginatedPatients(
-                0, 10, null, null, null, null, startDate, endDate);
+                0, 10, null, null, null, null, startDate, endDate, null, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCode());
@@ -428,7 +558,7 @@ class PatientControllerTest {
                 .thenReturn(errorResponse);
 
         BaseResponse<PaginationResponse<PatientResponse>> response = patientController.getPaginatedPatients(
-                -1, 10, null, null, null, null, null, null);
+                -1, 10, null, null, null, null, null, null, null, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCode());
@@ -450,15 +580,59 @@ class PatientControllerTest {
                 "TEST-REQUEST-ID"
         );
 
-        when(patientService.updatePatient(eq(testPid), any(PatientUpdateRequest.class)))
+        when(patientService.updatePatient(eq(testPid), any(PatientUpdateRequest.class), isNull()))
                 .thenReturn(errorResponse);
 
-        BaseResponse<PatientResponse> response = patientController.updatePatient(testPid, invalidRequest);
+        BaseResponse<PatientResponse> response = patientController.updatePatient(testPid, null, invalidRequest).getBody();
 
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCode());
         assertEquals("Invalid postcode for state NSW", response.getMessage());
         assertNull(response.getData());
-        verify(patientService, times(1)).updatePatient(eq(testPid), any(PatientUpdateRequest.class));
+        verify(patientService, times(1)).updatePatient(eq(testPid), any(PatientUpdateRequest.class), isNull());
+    }
+
+    @Test
+    void getPaginatedPatientSummaries_Success() {
+        PaginationResponse<PatientSummaryResponse> summaries = PaginationResponse.<PatientSummaryResponse>builder()
+                .content(List.of(new PatientSummaryResponse(testPid, "John", "Doe", AustralianState.NSW)))
+                .page(0)
+                .size(10)
+                .build();
+        when(paginationService.getPatientSummariesByPage(any(PaginationRequest.class)))
+                .thenReturn(new BaseResponse<>(HttpStatus.OK.value(), "Patients retrieved successfully", summaries, "TEST-REQUEST-ID"));
+
+        BaseResponse<PaginationResponse<PatientSummaryResponse>> response = patientController.getPaginatedPatientSummaries(
+                0, 10, null, "DESC", null, AustralianState.NSW, null, null, null);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(testPid, response.getData().getContent().get(0).getPid());
+        verify(paginationService).getPatientSummariesByPage(argThat(request -> request.getState() == AustralianState.NSW));
+    }
+
+    @Test
+    void exportPatients_Csv() {
+        StreamingResponseBody body = outputStream -> outputStream.write("id\n".getBytes());
+        when(patientExportService.exportPatients(any(PaginationRequest.class), eq(ExportFormat.CSV)))
+                .thenReturn(body);
+
+        ResponseEntity<StreamingResponseBody> response = patientController.exportPatients(
+                "Smith", AustralianState.NSW, null, null, ExportFormat.CSV);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        assertEquals("attachment; filename=\"patients.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertSame(body, response.getBody());
+        verify(patientExportService).exportPatients(argThat(request ->
+                "Smith".equals(request.getName()) && request.getState() == AustralianState.NSW), eq(ExportFormat.CSV));
+    }
+
+    private ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/patient/" + testPid);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 }
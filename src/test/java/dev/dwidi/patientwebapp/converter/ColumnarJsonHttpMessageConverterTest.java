@@ -0,0 +1,124 @@
+package dev.dwidi.patientwebapp.converter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ColumnarJsonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new SummaryController())
+                .setMessageConverters(
+                        new ColumnarJsonHttpMessageConverter(objectMapper),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void columnarAccept_WritesFieldsOnceAndRowsAsArrays() throws Exception {
+        JsonNode body = read(ColumnarJsonHttpMessageConverter.COLUMNAR_JSON_VALUE);
+
+        JsonNode data = body.get("data");
+        assertEquals("[\"pid\",\"firstName\",\"lastName\",\"state\"]", data.get("fields").toString());
+        assertEquals("[\"p1\",\"John\",\"Smith\",\"NSW\"]", data.get("rows").get(0).toString());
+        assertEquals("[\"p2\",\"Jane\",null,\"VIC\"]", data.get("rows").get(1).toString());
+        assertFalse(data.has("content"));
+        assertEquals(2, data.get("size").asInt());
+        assertEquals(200, body.get("statusCode").asInt());
+    }
+
+    @Test
+    void jsonAndWildcardAccept_KeepRegularRepresentation() throws Exception {
+        for (String accept : List.of(MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE)) {
+            JsonNode data = read(accept).get("data");
+
+            assertEquals("John", data.get("content").get(0).get("firstName").asText(), accept);
+            assertFalse(data.has("rows"), accept);
+        }
+    }
+
+    @Test
+    void columnarAccept_EmptyPageHasEmptyFieldsAndRows() throws Exception {
+        String body = mockMvc.perform(get("/empty").accept(ColumnarJsonHttpMessageConverter.COLUMNAR_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode data = objectMapper.readTree(body).get("data");
+        assertEquals(0, data.get("fields").size());
+        assertEquals(0, data.get("rows").size());
+    }
+
+    @Test
+    void writesOnlyWhenColumnarIsRequested() {
+        ColumnarJsonHttpMessageConverter converter = new ColumnarJsonHttpMessageConverter(objectMapper);
+
+        assertFalse(converter.canRead(PaginationResponse.class, ColumnarJsonHttpMessageConverter.COLUMNAR_JSON));
+        assertFalse(converter.canWrite(BaseResponse.class, null));
+        assertTrue(converter.canWrite(BaseResponse.class, ColumnarJsonHttpMessageConverter.COLUMNAR_JSON));
+    }
+
+    private JsonNode read(String accept) throws Exception {
+        String body = mockMvc.perform(get("/summaries").accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(
+                        MediaType.ALL_VALUE.equals(accept) ? MediaType.APPLICATION_JSON_VALUE : accept))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @RestController
+    static class SummaryController {
+
+        @GetMapping("/summaries")
+        BaseResponse<PaginationResponse<PatientSummaryResponse>> summaries() {
+            return page(List.of(
+                    new PatientSummaryResponse("p1", "John", "Smith", AustralianState.NSW),
+                    new PatientSummaryResponse("p2", "Jane", null, AustralianState.VIC)));
+        }
+
+        @GetMapping("/empty")
+        BaseResponse<PaginationResponse<PatientSummaryResponse>> empty() {
+            return page(List.of());
+        }
+
+        private BaseResponse<PaginationResponse<PatientSummaryResponse>> page(List<PatientSummaryResponse> content) {
+            return new BaseResponse<>(200, "Patients retrieved successfully",
+                    PaginationResponse.<PatientSummaryResponse>builder()
+                            .content(content)
+                            .page(0)
+                            .size(2)
+                            .last(true)
+                            .countMode(CountMode.NONE)
+                            .build(),
+                    "test");
+        }
+    }
+}
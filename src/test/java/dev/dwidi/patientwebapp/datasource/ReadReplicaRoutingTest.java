@@ -0,0 +1,107 @@
+package dev.dwidi.patientwebapp.datasource;
+
+import dev.dwidi.patientwebapp.config.ReadReplicaConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PrimaryStickiness stickiness = new PrimaryStickiness(Duration.ofSeconds(2), clock::get);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenAnswer(invocation -> connection());
+        lenient().when(replica.getConnection()).thenAnswer(invocation -> connection());
+
+        DataSource dataSource = new ReadReplicaConfig().dataSource(primary, replica, stickiness);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(stickiness);
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplica() throws SQLException {
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        verify(replica).getConnection();
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimary() throws SQLException {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("UPDATE patients SET phone_number = '0'"));
+
+        verify(primary, atLeastOnce()).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_StaysOnPrimaryWithinStickyWindowAfterWrite() throws SQLException {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("UPDATE patients SET phone_number = '0'"));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        verify(replica, never()).getConnection();
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        verify(replica).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_DoesNotStartStickyWindow() throws SQLException {
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void transactionWithoutStatements_DoesNotFetchConnection() throws SQLException {
+        readOnly.executeWithoutResult(status -> { });
+
+        verify(replica, never()).getConnection();
+    }
+
+    private Connection connection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        lenient().when(connection.getAutoCommit()).thenReturn(true);
+        lenient().when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(statement.execute(anyString())).thenReturn(true);
+        return connection;
+    }
+}
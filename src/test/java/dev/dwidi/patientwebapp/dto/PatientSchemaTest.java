@@ -0,0 +1,113 @@
+package dev.dwidi.patientwebapp.dto;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientRequest;
+import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.enums.Gender;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Keeps {@code schema/patient.cddl} in step with the DTOs and enums it describes.
+ */
+class PatientSchemaTest {
+
+    private static final Pattern GROUP = Pattern.compile("^([a-z-]+) = \\{(.*?)^}", Pattern.MULTILINE | Pattern.DOTALL);
+    private static final Pattern MEMBER = Pattern.compile("^\\s*(?:\\? )?(\\w+):", Pattern.MULTILINE);
+    private static final Pattern CHOICE = Pattern.compile("^([a-z-]+) = (\"[^\\n]*\")$", Pattern.MULTILINE);
+
+    private static final Map<String, Set<String>> groups = new LinkedHashMap<>();
+    private static final Map<String, Set<String>> choices = new LinkedHashMap<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void parseSchema() throws IOException {
+        String schema;
+        try (InputStream in = PatientSchemaTest.class.getResourceAsStream("/schema/patient.cddl")) {
+            assertNotNull(in, "schema/patient.cddl is missing");
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Matcher group = GROUP.matcher(schema);
+        while (group.find()) {
+            Set<String> members = new LinkedHashSet<>();
+            Matcher member = MEMBER.matcher(group.group(2));
+            while (member.find()) {
+                members.add(member.group(1));
+            }
+            groups.put(group.group(1), members);
+        }
+
+        Matcher choice = CHOICE.matcher(schema);
+        while (choice.find()) {
+            choices.put(choice.group(1), Arrays.stream(choice.group(2).split(" / "))
+                    .map(value -> value.replace("\"", ""))
+                    .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+    }
+
+    static Stream<Arguments> groups() {
+        return Stream.of(
+                Arguments.of("patient-request", PatientRequest.class),
+                Arguments.of("patient-response", PatientResponse.class),
+                Arguments.of("patient-summary-response", PatientSummaryResponse.class),
+                Arguments.of("pagination-response", PaginationResponse.class),
+                Arguments.of("patient-stats-response", PatientStatsResponse.class),
+                Arguments.of("base-response", BaseResponse.class));
+    }
+
+    static Stream<Arguments> choices() {
+        return Stream.of(
+                Arguments.of("gender", Gender.class),
+                Arguments.of("australian-state", AustralianState.class),
+                Arguments.of("count-mode", CountMode.class));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("groups")
+    void schemaGroup_MatchesJacksonProperties(String rule, Class<?> type) {
+        BeanDescription description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type));
+        Set<String> properties = description.findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        assertEquals(properties, groups.get(rule));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("choices")
+    void schemaChoice_MatchesEnumConstants(String rule, Class<? extends Enum<?>> type) {
+        Set<String> constants = Arrays.stream(type.getEnumConstants())
+                .map(Enum::name)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        assertEquals(constants, choices.get(rule));
+    }
+}
@@ -0,0 +1,67 @@
+package dev.dwidi.patientwebapp.filter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FirstRequestTimingFilterTest {
+
+    private final FirstRequestTimingFilter filter = new FirstRequestTimingFilter();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(FirstRequestTimingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void doFilter_LogsOnlyTheFirstRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patient/search"), new MockHttpServletResponse(),
+                new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patient/page"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.startsWith("First request GET /api/v1/patient/search served "), message);
+        assertTrue(message.endsWith(" ms after JVM start"), message);
+    }
+
+    @Test
+    void doFilter_RequestThatThrowsIsNotCountedAsServed() throws Exception {
+        MockFilterChain failing = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException {
+                throw new ServletException("boom");
+            }
+        });
+
+        assertThrows(ServletException.class, () -> filter.doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/patient/search"), new MockHttpServletResponse(), failing));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patient/page"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("First request GET /api/v1/patient/page "));
+    }
+}
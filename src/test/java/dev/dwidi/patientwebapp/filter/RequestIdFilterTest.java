@@ -0,0 +1,83 @@
+package dev.dwidi.patientwebapp.filter;
+
+import dev.dwidi.patientwebapp.utils.RequestIdUtils;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    @Test
+    void inboundRequestId_IsReusedAndEchoed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/patient/search");
+        request.addHeader(RequestIdUtils.REQUEST_ID_HEADER, "gateway-42.a_b");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seen = new ArrayList<>();
+
+        filter.doFilter(request, response, chain(() -> seen.add(MDC.get(RequestIdUtils.MDC_KEY))));
+
+        assertEquals(List.of("gateway-42.a_b"), seen);
+        assertEquals("gateway-42.a_b", response.getHeader(RequestIdUtils.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestIdUtils.MDC_KEY));
+    }
+
+    @Test
+    void missingRequestId_IsGeneratedOncePerRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seen = new ArrayList<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/patient/search"), response,
+                chain(() -> {
+                    // Every caller during the request gets the same id
+                    seen.add(RequestIdUtils.currentRequestId());
+                    seen.add(RequestIdUtils.currentRequestId());
+                }));
+
+        String generated = response.getHeader(RequestIdUtils.REQUEST_ID_HEADER);
+        assertNotNull(generated);
+        assertEquals(List.of(generated, generated), seen);
+        assertEquals(4, UUID.fromString(generated).version());
+        assertEquals(2, UUID.fromString(generated).variant());
+        assertNull(MDC.get(RequestIdUtils.MDC_KEY));
+    }
+
+    @Test
+    void invalidRequestId_IsReplaced() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/patient/search");
+        request.addHeader(RequestIdUtils.REQUEST_ID_HEADER, "forged\nINFO log line");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> seen = new ArrayList<>();
+
+        filter.doFilter(request, response, chain(() -> seen.add(MDC.get(RequestIdUtils.MDC_KEY))));
+
+        assertNotEquals("forged\nINFO log line", seen.get(0));
+        assertEquals(seen.get(0), response.getHeader(RequestIdUtils.REQUEST_ID_HEADER));
+    }
+
+    @Test
+    void currentRequestId_OutsideRequestIsFreshEachTime() {
+        assertNotEquals(RequestIdUtils.currentRequestId(), RequestIdUtils.currentRequestId());
+    }
+
+    private MockFilterChain chain(Runnable handler) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                handler.run();
+            }
+        });
+    }
+}
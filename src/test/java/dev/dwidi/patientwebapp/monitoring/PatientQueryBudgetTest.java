@@ -0,0 +1,179 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the patient endpoints against PostgreSQL with {@code patient.query-budget.fail-on-exceed} set, so any
+ * endpoint that goes over its configured SQL statement or row budget fails here, and pins the statement count
+ * of the hot read paths.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "patient.query-budget.fail-on-exceed=true",
+        "patient.seeder.enabled=false"
+})
+@AutoConfigureMockMvc
+class PatientQueryBudgetTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void patientEndpoints_StayWithinQueryBudget() throws Exception {
+        String pid = perform(post("/api/v1/patient/create").content(patientJson("Smith")), 201)
+                .get("data").get("pid").asText();
+
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(patientJson("Jones" + i));
+        }
+        perform(post("/api/v1/patient/batch").content("[" + String.join(",", batch) + "]"), 201);
+
+        perform(get("/api/v1/patient/" + pid), 200);
+        perform(get("/api/v1/patient/page").param("page", "0").param("size", "100"), 200);
+        perform(get("/api/v1/patient/page").param("countMode", "NONE"), 200);
+        double editStatements = totalStatements("/api/v1/patient/edit");
+        JsonNode edited = perform(put("/api/v1/patient/edit").param("pid", pid)
+                .content("{\"firstName\":\"Jane\",\"state\":\"NSW\",\"postcode\":\"2000\"}"), 200);
+        assertEquals("Jane", edited.get("data").get("firstName").asText());
+        assertEquals("Smith", edited.get("data").get("lastName").asText());
+        // UPDATE ... RETURNING, the patient is not loaded first
+        assertEquals(1.0, totalStatements("/api/v1/patient/edit") - editStatements);
+
+        JsonNode search = perform(get("/api/v1/patient/search")
+                .param("name", "smith")
+                .param("startDate", "2000-01-01")
+                .param("endDate", "2999-12-31"), 200);
+        assertEquals(1, search.get("data").get("totalElements").asInt());
+        // A single select: the first page is not full so no count is needed, and the date filter adds nothing
+        assertEquals(1.0, statements("/api/v1/patient/search"));
+
+        JsonNode summaries = perform(get("/api/v1/patient/search/summary")
+                .param("name", "smith")
+                .param("state", "NSW")
+                .param("countMode", "NONE"), 200);
+        assertEquals("Jane", summaries.get("data").get("content").get(0).get("firstName").asText());
+
+        double deleteStatements = totalStatements("/api/v1/patient/delete");
+        perform(delete("/api/v1/patient/delete").param("pid", pid), 200);
+        assertEquals(1.0, totalStatements("/api/v1/patient/delete") - deleteStatements);
+        perform(delete("/api/v1/patient/delete").param("pid", pid), 404);
+        perform(put("/api/v1/patient/edit").param("pid", pid)
+                .content("{\"firstName\":\"Jane\",\"state\":\"NSW\",\"postcode\":\"2000\"}"), 404);
+    }
+
+    @Test
+    void listEndpoints_CountProjectedRows() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            perform(post("/api/v1/patient/create").content(patientJson("Whitfield")), 201);
+        }
+
+        double searchRows = totalRows("/api/v1/patient/search");
+        perform(get("/api/v1/patient/search").param("name", "whitfield"), 200);
+        assertEquals(3.0, totalRows("/api/v1/patient/search") - searchRows);
+
+        double summaryRows = totalRows("/api/v1/patient/search/summary");
+        perform(get("/api/v1/patient/search/summary").param("name", "whitfield").param("countMode", "NONE"), 200);
+        assertEquals(3.0, totalRows("/api/v1/patient/search/summary") - summaryRows);
+
+        double pageRows = totalRows("/api/v1/patient/page");
+        perform(get("/api/v1/patient/page").param("page", "0").param("size", "2"), 200);
+        assertEquals(2.0, totalRows("/api/v1/patient/page") - pageRows);
+    }
+
+    @Test
+    void conditionalRequests_UseVersionAsETag() throws Exception {
+        String pid = perform(post("/api/v1/patient/create").content(patientJson("Brown")), 201)
+                .get("data").get("pid").asText();
+
+        mockMvc.perform(get("/api/v1/patient/" + pid))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        mockMvc.perform(get("/api/v1/patient/" + pid).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+
+        String edit = "{\"firstName\":\"Jane\",\"state\":\"NSW\",\"postcode\":\"2000\"}";
+        mockMvc.perform(put("/api/v1/patient/edit").param("pid", pid).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(edit))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        // A second writer still holding version 0 must not overwrite the first
+        mockMvc.perform(put("/api/v1/patient/edit").param("pid", pid).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(edit))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/v1/patient/" + pid).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/v1/patient/delete").param("pid", pid).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/patient/delete").param("pid", pid).header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, int expectedStatusCode) throws Exception {
+        String body = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode response = objectMapper.readTree(body);
+        assertEquals(expectedStatusCode, response.get("statusCode").asInt(), body);
+        return response;
+    }
+
+    private double statements(String uri) {
+        return meterRegistry.get("patient.query.statements").tag("uri", uri).summary().max();
+    }
+
+    /**
+     * Running total, for endpoints that other tests in this class also call with a different statement count.
+     */
+    private double totalStatements(String uri) {
+        DistributionSummary summary = meterRegistry.find("patient.query.statements").tag("uri", uri).summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private double totalRows(String uri) {
+        DistributionSummary summary = meterRegistry.find("patient.query.rows").tag("uri", uri).summary();
+        return summary != null ? summary.totalAmount() : 0;
+    }
+
+    private String patientJson(String lastName) {
+        return """
+                {"firstName":"John","lastName":"%s","dateOfBirth":"1980-05-17","gender":"MALE",
+                 "phoneNumber":"0412345678","address":"1 George Street","suburb":"Sydney","state":"NSW","postcode":"2000"}
+                """.formatted(lastName);
+    }
+}
@@ -0,0 +1,123 @@
+package dev.dwidi.patientwebapp.monitoring;
+
+import dev.dwidi.patientwebapp.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetTest {
+
+    private static final String ENDPOINT = "/api/v1/patient/search";
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryBudgetProperties properties;
+    private QueryBudget queryBudget;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new QueryBudgetProperties();
+        properties.setMaxStatements(2);
+        properties.setMaxRows(10);
+        queryBudget = new QueryBudget(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queryBudget.end();
+    }
+
+    @Test
+    void end_RecordsStatementsAndRowsPerEndpoint() {
+        queryBudget.begin("GET", ENDPOINT);
+        queryBudget.onStatement("select 1");
+        queryBudget.onStatement("select count(*)");
+        queryBudget.onRowLoaded();
+        queryBudget.end();
+
+        assertEquals(2.0, summary("patient.query.statements").totalAmount());
+        assertEquals(1.0, summary("patient.query.rows").totalAmount());
+        assertNull(meterRegistry.find("patient.query.budget.exceeded").counter());
+    }
+
+    @Test
+    void onStatement_OverBudgetCountsRequestOnce() {
+        queryBudget.begin("GET", ENDPOINT);
+        for (int i = 0; i < 5; i++) {
+            queryBudget.onStatement("select " + i);
+        }
+        queryBudget.end();
+
+        assertEquals(1.0, meterRegistry.get("patient.query.budget.exceeded").tag("uri", ENDPOINT).counter().count());
+        assertEquals(5.0, summary("patient.query.statements").totalAmount());
+    }
+
+    @Test
+    void onStatement_OverBudgetThrowsWhenFailOnExceed() {
+        properties.setFailOnExceed(true);
+        queryBudget.begin("GET", ENDPOINT);
+        queryBudget.onStatement("select 1");
+        queryBudget.onStatement("select 2");
+
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> queryBudget.onStatement("select 3"));
+        assertTrue(exception.getMessage().contains("select 3"));
+    }
+
+    @Test
+    void onRowLoaded_OverBudgetThrowsWhenFailOnExceed() {
+        properties.setFailOnExceed(true);
+        queryBudget.begin("GET", ENDPOINT);
+        for (int i = 0; i < 10; i++) {
+            queryBudget.onRowLoaded();
+        }
+
+        assertThrows(QueryBudgetExceededException.class, () -> queryBudget.onRowLoaded());
+    }
+
+    @Test
+    void onRowsLoaded_CountsProjectedRowsAgainstBudget() {
+        properties.setFailOnExceed(true);
+        queryBudget.begin("GET", ENDPOINT);
+        queryBudget.onRowsLoaded(9);
+        queryBudget.onRowLoaded();
+
+        assertThrows(QueryBudgetExceededException.class, () -> queryBudget.onRowsLoaded(1));
+        queryBudget.end();
+        assertEquals(11.0, summary("patient.query.rows").totalAmount());
+    }
+
+    @Test
+    void begin_UsesEndpointOverride() {
+        QueryBudgetProperties.Budget budget = new QueryBudgetProperties.Budget();
+        budget.setMaxStatements(5);
+        properties.getEndpoints().put(ENDPOINT, budget);
+        properties.setFailOnExceed(true);
+
+        queryBudget.begin("GET", ENDPOINT);
+        for (int i = 0; i < 5; i++) {
+            queryBudget.onStatement("select " + i);
+        }
+
+        assertThrows(QueryBudgetExceededException.class, () -> queryBudget.onStatement("select 5"));
+    }
+
+    @Test
+    void onStatement_IgnoredOutsideRequest() {
+        properties.setFailOnExceed(true);
+
+        for (int i = 0; i < 5; i++) {
+            queryBudget.onStatement("select " + i);
+        }
+
+        assertNull(meterRegistry.find("patient.query.statements").summary());
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.get(name).tag("method", "GET").tag("uri", ENDPOINT).summary();
+    }
+}
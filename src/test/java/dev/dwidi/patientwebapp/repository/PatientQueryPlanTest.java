@@ -0,0 +1,116 @@
+package dev.dwidi.patientwebapp.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN for every /search filter and sort combination against the Flyway schema and fails if
+ * any plan needs a sequential scan. Sequential scans are disabled for the session, so the planner only
+ * falls back to one when no index can answer the query, which keeps the test independent of table size.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PatientQueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Map<String, String> FILTERS = new LinkedHashMap<>();
+    private static final List<String> SORT_COLUMNS = List.of(
+            "created_at", "first_name", "last_name", "date_of_birth", "pid", "id");
+
+    static {
+        FILTERS.put("no filter", null);
+        FILTERS.put("state", "state = 'NSW'");
+        FILTERS.put("createdAt range", "created_at BETWEEN '2024-01-01 00:00:00' AND '2024-01-31 23:59:59'");
+        FILTERS.put("state and createdAt range",
+                "state = 'NSW' AND created_at BETWEEN '2024-01-01 00:00:00' AND '2024-01-31 23:59:59'");
+        FILTERS.put("name",
+                "(lower(first_name) LIKE '%smi%' ESCAPE '\\' OR lower(last_name) LIKE '%smi%' ESCAPE '\\')");
+    }
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                // Same as spring.flyway.postgresql.transactional-lock, needed for CREATE INDEX CONCURRENTLY
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE patients");
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    static Stream<Arguments> searchQueries() {
+        List<Arguments> queries = new ArrayList<>();
+
+        FILTERS.forEach((filterName, where) -> {
+            String whereClause = where != null ? " WHERE " + where : "";
+            queries.add(Arguments.of(filterName + ", count", "SELECT count(*) FROM patients" + whereClause));
+
+            for (String column : SORT_COLUMNS) {
+                for (String direction : List.of("ASC", "DESC")) {
+                    String orderBy = "id".equals(column)
+                            ? "id " + direction
+                            : column + " " + direction + ", id " + direction;
+                    queries.add(Arguments.of(
+                            filterName + ", sort " + column + " " + direction,
+                            "SELECT * FROM patients" + whereClause + " ORDER BY " + orderBy + " LIMIT 11"));
+                }
+            }
+        });
+
+        return queries.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("searchQueries")
+    void searchQuery_DoesNotUseSequentialScan(String description, String sql) throws SQLException {
+        String plan = explain(sql);
+
+        assertFalse(plan.contains("Seq Scan"), () -> "Sequential scan for " + description + ":\n" + plan);
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
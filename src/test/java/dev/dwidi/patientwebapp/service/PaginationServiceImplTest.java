@@ -1,14 +1,19 @@
 package dev.dwidi.patientwebapp.service;
 
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
 import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
 import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientSummaryResponse;
 import dev.dwidi.patientwebapp.entity.Patient;
 import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
 import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
 import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
 import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.utils.CursorUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +24,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 
@@ -28,6 +35,10 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,10 +47,17 @@ class PaginationServiceImplTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientCountService patientCountService;
+
+    @Mock
+    private PatientSearchIndex patientSearchIndex;
+
     @InjectMocks
     private PaginationServiceImpl paginationService;
 
     private Patient testPatient;
+    private PatientResponse testPatientResponse;
     private PaginationRequest request;
     private final LocalDateTime NOW = LocalDateTime.now();
 
@@ -62,6 +80,7 @@ class PaginationServiceImplTest {
         testPatient.setAddress(address);
         testPatient.setCreatedAt(NOW);
         testPatient.setUpdatedAt(NOW);
+        testPatientResponse = PatientMapper.toPatientResponse(testPatient);
 
         request = PaginationRequest.builder()
                 .page(0)
@@ -78,12 +97,12 @@ class PaginationServiceImplTest {
     @Test
     void getPatientsByPage_Success() {
         // Arrange
-        Page<Patient> patientPage = new PageImpl<>(
-                List.of(testPatient),
+        Page<PatientResponse> patientPage = new PageImpl<>(
+                List.of(testPatientResponse),
                 PageRequest.of(0, 10),
                 15
         );
-        when(patientRepository.findAll(any(Specification.class), any(Pageable.class)))
+        when(patientRepository.findPage(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
                 .thenReturn(patientPage);
 
         // Act
@@ -107,8 +126,8 @@ class PaginationServiceImplTest {
     @Test
     void getPatientsByPage_NoResults() {
         // Arrange
-        Page<Patient> emptyPage = new PageImpl<>(List.of());
-        when(patientRepository.findAll(any(Specification.class), any(Pageable.class)))
+        Page<PatientResponse> emptyPage = new PageImpl<>(List.of());
+        when(patientRepository.findPage(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
                 .thenReturn(emptyPage);
 
         // Act
@@ -143,13 +162,13 @@ class PaginationServiceImplTest {
         request.setSortBy(null);
         request.setSortDirection(null);
 
-        Page<Patient> patientPage = new PageImpl<>(
-                List.of(testPatient),
+        Page<PatientResponse> patientPage = new PageImpl<>(
+                List.of(testPatientResponse),
                 PageRequest.of(0, 10),
                 1
         );
 
-        when(patientRepository.findAll(any(Specification.class), any(Pageable.class)))
+        when(patientRepository.findPage(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
                 .thenReturn(patientPage);
 
         // Act
@@ -164,4 +183,215 @@ class PaginationServiceImplTest {
         assertEquals(10, response.getData().getSize());
         assertEquals(1, response.getData().getTotalPages());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPatientsByPage_ReturnsNextCursorWhenMorePagesExist() {
+        // Arrange
+        Page<PatientResponse> patientPage = new PageImpl<>(
+                List.of(testPatientResponse),
+                PageRequest.of(0, 1),
+                15
+        );
+        when(patientRepository.findPage(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(patientPage);
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        CursorUtils.Cursor cursor = CursorUtils.decode(response.getData().getNextCursor());
+        assertEquals("firstName", cursor.sortBy());
+        assertEquals(Sort.Direction.ASC, cursor.direction());
+        assertEquals("Amelia", cursor.value());
+        assertEquals(671L, cursor.id());
+    }
+
+    @Test
+    void getPatientsByPage_WithCursor() {
+        // Arrange
+        request.setCursor(CursorUtils.encode("firstName", Sort.Direction.ASC, "Aaron", 12L));
+        when(patientRepository.findSlice(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new SliceImpl<>(List.of(testPatientResponse), PageRequest.of(0, 10), true));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(1, response.getData().getContent().size());
+        assertFalse(response.getData().isLast());
+        assertNull(response.getData().getTotalElements());
+        assertNotNull(response.getData().getNextCursor());
+        verify(patientRepository, never()).findPage(any(Specification.class), any(Pageable.class), any());
+    }
+
+    @Test
+    void getPatientsByPage_WithCursorForDifferentSort() {
+        // Arrange
+        request.setCursor(CursorUtils.encode("createdAt", Sort.Direction.DESC, NOW.toString(), 12L));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCode());
+        assertEquals("Cursor does not match the requested sort", response.getMessage());
+        assertNull(response.getData());
+    }
+
+    @Test
+    void getPatientsByPage_WithMalformedCursor() {
+        // Arrange
+        request.setCursor("not-a-cursor");
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCode());
+        assertEquals("Invalid cursor", response.getMessage());
+    }
+
+    @Test
+    void getPatientsByPage_WithoutCount() {
+        // Arrange
+        request.setCountMode(CountMode.NONE);
+        when(patientRepository.findSlice(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new SliceImpl<>(List.of(testPatientResponse), PageRequest.of(0, 10), true));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertTrue(response.getData().getHasNext());
+        assertNull(response.getData().getTotalElements());
+        assertNull(response.getData().getTotalPages());
+        assertEquals(CountMode.NONE, response.getData().getCountMode());
+        verify(patientRepository, never()).findPage(any(Specification.class), any(Pageable.class), any());
+        verify(patientCountService, never()).count(any(), anyString(), any());
+    }
+
+    @Test
+    void getPatientsByPage_WithEstimatedCount() {
+        // Arrange
+        request.setCountMode(CountMode.ESTIMATED);
+        when(patientRepository.findSlice(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new SliceImpl<>(List.of(testPatientResponse), PageRequest.of(0, 10), true));
+        when(patientCountService.count(any(), eq("smith|NSW|2024-09-01|2024-11-01"), eq(CountMode.ESTIMATED)))
+                .thenReturn(new PatientCountService.Count(42, CountMode.CACHED));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(42L, response.getData().getTotalElements());
+        assertEquals(5, response.getData().getTotalPages());
+        assertEquals(CountMode.CACHED, response.getData().getCountMode());
+    }
+
+    @Test
+    void getPatientSummariesByPage_ProjectsSummaries() {
+        // Arrange
+        request.setCountMode(CountMode.NONE);
+        PatientSummaryResponse summary = new PatientSummaryResponse(
+                testPatient.getPid(), testPatient.getFirstName(), testPatient.getLastName(), AustralianState.NSW);
+        when(patientRepository.findSlice(any(Specification.class), any(Pageable.class), eq(PatientSummaryResponse.class)))
+                .thenReturn(new SliceImpl<>(List.of(summary), PageRequest.of(0, 10), true));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientSummaryResponse>> response =
+                paginationService.getPatientSummariesByPage(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(List.of(summary), response.getData().getContent());
+        assertTrue(response.getData().getHasNext());
+        assertNull(response.getData().getNextCursor());
+    }
+
+    @Test
+    void getPatientSummariesByPage_AnsweredFromSearchIndex() {
+        // Arrange
+        request.setSortBy(null);
+        request.setSortDirection(null);
+        when(patientSearchIndex.isLoaded()).thenReturn(true);
+        when(patientSearchIndex.search(any())).thenReturn(new PatientSearchIndex.Result(
+                List.of(new PatientSearchIndex.Hit(671L, testPatient.getPid(), "Amelia", "Smith", AustralianState.NSW)),
+                false, 1));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientSummaryResponse>> response =
+                paginationService.getPatientSummariesByPage(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(List.of(new PatientSummaryResponse(testPatient.getPid(), "Amelia", "Smith", AustralianState.NSW)),
+                response.getData().getContent());
+        assertEquals(1L, response.getData().getTotalElements());
+        assertEquals(CountMode.EXACT, response.getData().getCountMode());
+        verify(patientSearchIndex).search(PatientSearchIndex.Query.builder()
+                .name("Smith")
+                .state(AustralianState.NSW)
+                .startDate(LocalDate.of(2024, 9, 1))
+                .endDate(LocalDate.of(2024, 11, 1))
+                .ascending(false)
+                .offset(0)
+                .limit(10)
+                .count(true)
+                .build());
+        verify(patientRepository, never()).findSlice(any(), any(), any());
+        verify(patientRepository, never()).findPage(any(), any(), any());
+    }
+
+    @Test
+    void getPatientsByPage_FromSearchIndexReadsPageById() {
+        // Arrange
+        request.setSortBy("createdAt");
+        request.setSortDirection("DESC");
+        request.setCountMode(CountMode.NONE);
+        when(patientSearchIndex.isLoaded()).thenReturn(true);
+        when(patientSearchIndex.search(any())).thenReturn(new PatientSearchIndex.Result(
+                List.of(new PatientSearchIndex.Hit(671L, testPatient.getPid(), "Amelia", "Smith", AustralianState.NSW)),
+                true, -1));
+        when(patientRepository.findSlice(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new SliceImpl<>(List.of(testPatientResponse), PageRequest.of(0, 1), false));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(List.of(testPatientResponse), response.getData().getContent());
+        assertTrue(response.getData().getHasNext());
+        assertNull(response.getData().getTotalElements());
+        CursorUtils.Cursor cursor = CursorUtils.decode(response.getData().getNextCursor());
+        assertEquals("createdAt", cursor.sortBy());
+        assertEquals(671L, cursor.id());
+        verify(patientRepository).findSlice(any(Specification.class), eq(PageRequest.of(0, 1,
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")))),
+                eq(PatientResponse.class));
+    }
+
+    @Test
+    void getPatientsByPage_SearchIndexSkippedForOtherSorts() {
+        // Arrange
+        when(patientSearchIndex.isLoaded()).thenReturn(true);
+        when(patientRepository.findPage(any(Specification.class), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new PageImpl<>(List.of(testPatientResponse), PageRequest.of(0, 10), 1));
+
+        // Act
+        BaseResponse<PaginationResponse<PatientResponse>> response =
+                paginationService.getPatientsByPage(request);
+
+        // Assert
+        assertEquals(1, response.getData().getContent().size());
+        verify(patientSearchIndex, never()).search(any());
+    }
+}
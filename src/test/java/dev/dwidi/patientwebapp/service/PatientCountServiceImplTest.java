@@ -0,0 +1,88 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.enums.CountMode;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientCountServiceImplTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private PatientCountServiceImpl patientCountService;
+
+    private final Specification<Patient> spec = Specification.where(null);
+
+    @BeforeEach
+    void setUp() {
+        patientCountService = new PatientCountServiceImpl(patientRepository, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void count_Exact() {
+        when(patientRepository.count(any(Specification.class))).thenReturn(15L);
+
+        PatientCountService.Count count = patientCountService.count(spec, "smith", CountMode.EXACT);
+
+        assertEquals(15L, count.total());
+        assertEquals(CountMode.EXACT, count.mode());
+    }
+
+    @Test
+    void count_CachedReusesCountForSameFilter() {
+        when(patientRepository.count(any(Specification.class))).thenReturn(15L);
+
+        patientCountService.count(spec, "smith", CountMode.CACHED);
+        PatientCountService.Count count = patientCountService.count(spec, "smith", CountMode.CACHED);
+
+        assertEquals(15L, count.total());
+        assertEquals(CountMode.CACHED, count.mode());
+        verify(patientRepository, times(1)).count(any(Specification.class));
+    }
+
+    @Test
+    void count_EstimatedUsesTableStatisticsWhenUnfiltered() {
+        when(patientRepository.estimateCount()).thenReturn(500000L);
+
+        PatientCountService.Count count = patientCountService.count(spec, PatientCountService.UNFILTERED, CountMode.ESTIMATED);
+
+        assertEquals(500000L, count.total());
+        assertEquals(CountMode.ESTIMATED, count.mode());
+        verify(patientRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void count_EstimatedFallsBackToCachedCountWithoutStatistics() {
+        when(patientRepository.estimateCount()).thenReturn(-1L);
+        when(patientRepository.count(any(Specification.class))).thenReturn(7L);
+
+        PatientCountService.Count count = patientCountService.count(spec, PatientCountService.UNFILTERED, CountMode.ESTIMATED);
+
+        assertEquals(7L, count.total());
+        assertEquals(CountMode.CACHED, count.mode());
+    }
+
+    @Test
+    void count_EstimatedWithFiltersUsesCachedCount() {
+        when(patientRepository.count(any(Specification.class))).thenReturn(3L);
+
+        PatientCountService.Count count = patientCountService.count(spec, "smith", CountMode.ESTIMATED);
+
+        assertEquals(3L, count.total());
+        assertEquals(CountMode.CACHED, count.mode());
+        verify(patientRepository, never()).estimateCount();
+    }
+}
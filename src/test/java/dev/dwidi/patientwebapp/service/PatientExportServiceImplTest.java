@@ -0,0 +1,139 @@
+package dev.dwidi.patientwebapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.dwidi.patientwebapp.dto.patient.PaginationRequest;
+import dev.dwidi.patientwebapp.entity.Patient;
+import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
+import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.ExportFormat;
+import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.exception.DateInvalidFormatException;
+import dev.dwidi.patientwebapp.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientExportServiceImplTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private PatientExportServiceImpl patientExportService;
+
+    private PaginationRequest request;
+
+    @BeforeEach
+    void setUp() {
+        patientExportService = new PatientExportServiceImpl(patientRepository, objectMapper, transactionManager, 500);
+        request = PaginationRequest.builder().state(AustralianState.NSW).build();
+    }
+
+    @Test
+    void exportPatients_NdjsonWritesOneObjectPerLine() throws Exception {
+        when(patientRepository.streamAll(any(Specification.class), eq(Sort.by("id")), eq(500)))
+                .thenReturn(Stream.of(patient(1L, "Smith"), patient(2L, "Jones")));
+
+        String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("pid-1", first.get("pid").asText());
+        assertEquals("1970-01-01", first.get("dateOfBirth").asText());
+        assertEquals("Jones", objectMapper.readTree(lines[1]).get("lastName").asText());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportPatients_CsvWritesHeaderAndEscapesValues() throws Exception {
+        Patient patient = patient(1L, "O\"Brien");
+        patient.getAddress().setAddress("Unit 1, 10 George Street");
+        when(patientRepository.streamAll(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(Stream.of(patient));
+
+        String[] lines = export(ExportFormat.CSV).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,pid,firstName,lastName,"));
+        assertTrue(lines[1].startsWith("1,pid-1,John,\"O\"\"Brien\",1970-01-01,MALE,"));
+        assertTrue(lines[1].contains(",\"Unit 1, 10 George Street\",Sydney,NSW,2000,"));
+    }
+
+    @Test
+    void exportPatients_ClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(patientRepository.streamAll(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(Stream.of(patient(1L, "Smith")).onClose(() -> closed.set(true)));
+
+        export(ExportFormat.NDJSON);
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportPatients_InvalidDateRangeFailsBeforeStreaming() {
+        PaginationRequest invalidRequest = PaginationRequest.builder()
+                .startDate(LocalDate.of(2024, 2, 1))
+                .endDate(LocalDate.of(2024, 1, 1))
+                .build();
+
+        assertThrows(DateInvalidFormatException.class,
+                () -> patientExportService.exportPatients(invalidRequest, ExportFormat.NDJSON));
+        verifyNoInteractions(patientRepository, transactionManager);
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        patientExportService.exportPatients(request, format).writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private Patient patient(Long id, String lastName) {
+        AustralianAddress address = new AustralianAddress();
+        address.setAddress("10 George Street");
+        address.setSuburb("Sydney");
+        address.setState(AustralianState.NSW);
+        address.setPostcode("2000");
+
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setPid("pid-" + id);
+        patient.setFirstName("John");
+        patient.setLastName(lastName);
+        patient.setDateOfBirth(LocalDate.of(1970, 1, 1));
+        patient.setGender(Gender.MALE);
+        patient.setPhoneNumber("0412345678");
+        patient.setAddress(address);
+        patient.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        patient.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        return patient;
+    }
+}
@@ -1,31 +1,49 @@
 package dev.dwidi.patientwebapp.service;
 
+import dev.dwidi.patientwebapp.cache.KnownPidFilter;
+import dev.dwidi.patientwebapp.cache.PatientResponseCache;
+import dev.dwidi.patientwebapp.cache.PatientSearchIndex;
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
 import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PaginationResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientBatchResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientRequest;
 import dev.dwidi.patientwebapp.dto.patient.PatientResponse;
 import dev.dwidi.patientwebapp.dto.patient.PatientUpdateRequest;
 import dev.dwidi.patientwebapp.entity.Patient;
 import dev.dwidi.patientwebapp.entity.embedded.AustralianAddress;
 import dev.dwidi.patientwebapp.enums.AustralianState;
+import dev.dwidi.patientwebapp.enums.CountMode;
 import dev.dwidi.patientwebapp.enums.Gender;
+import dev.dwidi.patientwebapp.mapper.PatientMapper;
+import dev.dwidi.patientwebapp.monitoring.PatientMetrics;
+import dev.dwidi.patientwebapp.repository.PatientFacets;
 import dev.dwidi.patientwebapp.repository.PatientRepository;
+import dev.dwidi.patientwebapp.repository.UpdatedPatient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +52,31 @@ class PatientServiceImplTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientCountService patientCountService;
+
+    @Spy
+    private PatientResponseCache patientResponseCache =
+            new PatientResponseCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Spy
+    private PidGenerator pidGenerator = new PidGenerator(0);
+
+    @Spy
+    private PatientMetrics patientMetrics = new PatientMetrics(new SimpleMeterRegistry());
+
+    // Not loaded, so it never rules a PID out unless a test stubs it
+    @Spy
+    private KnownPidFilter knownPidFilter = new KnownPidFilter(null, new SimpleMeterRegistry(), true, 0,
+            1000, 0.01, Duration.ofMinutes(5), 1000);
+
+    @Mock
+    private PatientSearchIndex patientSearchIndex;
+
+    // Not loaded, writes only pass through its lock
+    @Spy
+    private PatientStatistics patientStatistics = new PatientStatistics(null);
+
     @InjectMocks
     private PatientServiceImpl patientService;
 
@@ -95,6 +138,7 @@ class PatientServiceImplTest {
         assertEquals(patientRequest.getFirstName(), response.getData().getFirstName());
 
         verify(patientRepository, times(1)).save(any(Patient.class));
+        verify(knownPidFilter).add(anyString());
     }
 
     @Test
@@ -150,11 +194,10 @@ class PatientServiceImplTest {
         updatedPatient.setUpdatedAt(now);
 
         // Mock repository behavior
-        when(patientRepository.findByPid(pid)).thenReturn(Optional.of(existingPatient));
-        when(patientRepository.save(any(Patient.class))).thenReturn(updatedPatient);
+        when(patientRepository.updateByPid(pid, updateRequest, null)).thenReturn(Optional.of(updated(updatedPatient)));
 
         // Execute
-        BaseResponse<PatientResponse> response = patientService.updatePatient(pid, updateRequest);
+        BaseResponse<PatientResponse> response = patientService.updatePatient(pid, updateRequest, null);
 
         // Verify
         assertAll(
@@ -197,10 +240,10 @@ class PatientServiceImplTest {
         updateRequest.setPostcode("2026");
 
         // Mock repository behavior
-        when(patientRepository.findByPid(nonExistentPid)).thenReturn(Optional.empty());
+        when(patientRepository.updateByPid(nonExistentPid, updateRequest, null)).thenReturn(Optional.empty());
 
         // Execute
-        BaseResponse<PatientResponse> response = patientService.updatePatient(nonExistentPid, updateRequest);
+        BaseResponse<PatientResponse> response = patientService.updatePatient(nonExistentPid, updateRequest, null);
 
         // Verify
         assertAll(
@@ -211,31 +254,82 @@ class PatientServiceImplTest {
         );
 
         // Verify repository interactions
-        verify(patientRepository, times(1)).findByPid(nonExistentPid);
+        verify(patientRepository, times(1)).updateByPid(nonExistentPid, updateRequest, null);
+        verify(patientRepository, never()).findByPid(any());
         verify(patientRepository, never()).save(any(Patient.class));
     }
 
     @Test
     void deletePatient_Success() {
-        when(patientRepository.findByPid(TEST_PID)).thenReturn(Optional.of(patient));
-        doNothing().when(patientRepository).delete(any(Patient.class));
+        when(patientRepository.deleteByPid(TEST_PID, null)).thenReturn(Optional.of(PatientFacets.of(patient)));
 
-        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID);
+        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID, null);
 
         assertEquals(HttpStatus.OK.value(), response.getStatusCode());
         assertEquals("Patient deleted successfully", response.getMessage());
-        verify(patientRepository).delete(any(Patient.class));
+        verify(patientRepository).deleteByPid(TEST_PID, null);
+        verify(patientRepository, never()).findByPid(any());
+        verify(patientStatistics).beginWrite();
     }
 
     @Test
     void deletePatient_PatientNotFound() {
-        when(patientRepository.findByPid(TEST_PID)).thenReturn(Optional.empty());
+        when(patientRepository.deleteByPid(TEST_PID, null)).thenReturn(Optional.empty());
 
-        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID);
+        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID, null);
 
         assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
         assertTrue(response.getMessage().contains("Patient not found"));
-        verify(patientRepository, never()).delete(any(Patient.class));
+        verify(patientResponseCache, never()).invalidate(any());
+    }
+
+    @Test
+    void updatePatient_VersionMismatch() {
+        updateRequest.setState(AustralianState.NSW);
+        updateRequest.setPostcode("2000");
+        when(patientRepository.updateByPid(TEST_PID, updateRequest, List.of(2L))).thenReturn(Optional.empty());
+        when(patientRepository.existsByPid(TEST_PID)).thenReturn(true);
+
+        BaseResponse<PatientResponse> response = patientService.updatePatient(TEST_PID, updateRequest, List.of(2L));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED.value(), response.getStatusCode());
+        assertNull(response.getData());
+        verify(patientResponseCache, never()).put(any());
+        verify(patientMetrics).serviceError("updatePatient", HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void updatePatient_WithVersionPatientNotFound() {
+        updateRequest.setState(AustralianState.NSW);
+        updateRequest.setPostcode("2000");
+        when(patientRepository.updateByPid(TEST_PID, updateRequest, List.of(2L))).thenReturn(Optional.empty());
+        when(patientRepository.existsByPid(TEST_PID)).thenReturn(false);
+
+        BaseResponse<PatientResponse> response = patientService.updatePatient(TEST_PID, updateRequest, List.of(2L));
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
+    }
+
+    @Test
+    void deletePatient_WithMatchingVersion() {
+        when(patientRepository.deleteByPid(TEST_PID, List.of(2L))).thenReturn(Optional.of(PatientFacets.of(patient)));
+
+        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID, List.of(2L));
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        verify(patientRepository).deleteByPid(TEST_PID, List.of(2L));
+        verify(patientRepository, never()).existsByPid(any());
+    }
+
+    @Test
+    void deletePatient_VersionMismatch() {
+        when(patientRepository.deleteByPid(TEST_PID, List.of(2L))).thenReturn(Optional.empty());
+        when(patientRepository.existsByPid(TEST_PID)).thenReturn(true);
+
+        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID, List.of(2L));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED.value(), response.getStatusCode());
+        verify(patientResponseCache, never()).invalidate(any());
     }
 
     @Test
@@ -248,6 +342,7 @@ class PatientServiceImplTest {
         assertEquals("Patient retrieved successfully", response.getMessage());
         assertNotNull(response.getData());
         assertEquals(TEST_PID, response.getData().getPid());
+        verifyNoInteractions(patientMetrics);
     }
 
     @Test
@@ -259,6 +354,28 @@ class PatientServiceImplTest {
         assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
         assertTrue(response.getMessage().contains("Patient not found"));
         assertNull(response.getData());
+        verify(patientMetrics).serviceError("getPatientByPID", HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void getPatientByPID_RuledOutByFilterSkipsRepository() {
+        doReturn(true).when(knownPidFilter).isAbsent(TEST_PID);
+
+        BaseResponse<PatientResponse> response = patientService.getPatientByPID(TEST_PID);
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
+        assertEquals("Patient not found with PID: " + TEST_PID, response.getMessage());
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void deletePatient_RuledOutByFilterSkipsRepository() {
+        doReturn(true).when(knownPidFilter).isAbsent(TEST_PID);
+
+        BaseResponse<PatientResponse> response = patientService.deletePatient(TEST_PID, null);
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCode());
+        verifyNoInteractions(patientRepository);
     }
 
     @Test
@@ -269,9 +386,9 @@ class PatientServiceImplTest {
     @Test
     void getAllPatients_Success() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
-        Page<Patient> patientPage = new PageImpl<>(Arrays.asList(patient), pageable, 1);
+        Page<PatientResponse> patientPage = new PageImpl<>(Arrays.asList(PatientMapper.toPatientResponse(patient)), pageable, 1);
 
-        when(patientRepository.findAll(any(Pageable.class))).thenReturn(patientPage);
+        when(patientRepository.findPage(isNull(), any(Pageable.class), eq(PatientResponse.class))).thenReturn(patientPage);
 
         BaseResponse<Page<PatientResponse>> response = patientService.getAllPatients(0, 10);
 
@@ -284,9 +401,9 @@ class PatientServiceImplTest {
     @Test
     void getAllPatients_EmptyResult() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
-        Page<Patient> emptyPage = new PageImpl<>(Arrays.asList(), pageable, 0);
+        Page<PatientResponse> emptyPage = new PageImpl<>(Arrays.asList(), pageable, 0);
 
-        when(patientRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+        when(patientRepository.findPage(isNull(), any(Pageable.class), eq(PatientResponse.class))).thenReturn(emptyPage);
 
         BaseResponse<Page<PatientResponse>> response = patientService.getAllPatients(0, 10);
 
@@ -298,9 +415,9 @@ class PatientServiceImplTest {
     @Test
     void getAllPatients_WithNullPageAndSize() {
         Pageable defaultPageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
-        Page<Patient> patientPage = new PageImpl<>(Arrays.asList(patient), defaultPageable, 1);
+        Page<PatientResponse> patientPage = new PageImpl<>(Arrays.asList(PatientMapper.toPatientResponse(patient)), defaultPageable, 1);
 
-        when(patientRepository.findAll(any(Pageable.class))).thenReturn(patientPage);
+        when(patientRepository.findPage(isNull(), any(Pageable.class), eq(PatientResponse.class))).thenReturn(patientPage);
 
         BaseResponse<Page<PatientResponse>> response = patientService.getAllPatients(null, null);
 
@@ -308,4 +425,167 @@ class PatientServiceImplTest {
         assertNotNull(response.getData());
         assertEquals(1, response.getData().getTotalElements());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllPatients_WithoutCount() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        when(patientRepository.findSlice(isNull(), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(PatientMapper.toPatientResponse(patient)), pageable, true));
+
+        BaseResponse<PaginationResponse<PatientResponse>> response = patientService.getAllPatients(0, 10, CountMode.NONE);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(1, response.getData().getContent().size());
+        assertTrue(response.getData().getHasNext());
+        assertNull(response.getData().getTotalElements());
+        verify(patientRepository, never()).findPage(any(), any(Pageable.class), any());
+        verify(patientCountService, never()).count(any(), anyString(), any());
+    }
+
+    @Test
+    void getAllPatients_WithEstimatedCount() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        when(patientRepository.findSlice(isNull(), any(Pageable.class), eq(PatientResponse.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(PatientMapper.toPatientResponse(patient)), pageable, true));
+        when(patientCountService.count(any(), anyString(), any()))
+                .thenReturn(new PatientCountService.Count(500000, CountMode.ESTIMATED));
+
+        BaseResponse<PaginationResponse<PatientResponse>> response = patientService.getAllPatients(0, 10, CountMode.ESTIMATED);
+
+        assertEquals(500000L, response.getData().getTotalElements());
+        assertEquals(50000, response.getData().getTotalPages());
+        assertEquals(CountMode.ESTIMATED, response.getData().getCountMode());
+    }
+
+    @Test
+    void getPatientByPID_ServedFromCacheOnSecondCall() {
+        when(patientRepository.findByPid(TEST_PID)).thenReturn(Optional.of(patient));
+
+        patientService.getPatientByPID(TEST_PID);
+        BaseResponse<PatientResponse> response = patientService.getPatientByPID(TEST_PID);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertEquals(TEST_PID, response.getData().getPid());
+        verify(patientRepository, times(1)).findByPid(TEST_PID);
+    }
+
+    @Test
+    void getPatientByPID_NotFoundIsNotCached() {
+        when(patientRepository.findByPid(TEST_PID)).thenReturn(Optional.empty());
+
+        patientService.getPatientByPID(TEST_PID);
+        patientService.getPatientByPID(TEST_PID);
+
+        verify(patientRepository, times(2)).findByPid(TEST_PID);
+    }
+
+    @Test
+    void updatePatient_RefreshesCachedPatient() {
+        when(patientRepository.findByPid(TEST_PID)).thenReturn(Optional.of(patient));
+        updateRequest.setState(AustralianState.NSW);
+        updateRequest.setPostcode("2000");
+        Patient updatedPatient = new Patient();
+        BeanUtils.copyProperties(patient, updatedPatient);
+        updatedPatient.setFirstName(updateRequest.getFirstName());
+        when(patientRepository.updateByPid(TEST_PID, updateRequest, null)).thenReturn(Optional.of(updated(updatedPatient)));
+        patientService.getPatientByPID(TEST_PID);
+
+        patientService.updatePatient(TEST_PID, updateRequest, null);
+        BaseResponse<PatientResponse> response = patientService.getPatientByPID(TEST_PID);
+
+        assertEquals("John Updated", response.getData().getFirstName());
+        verify(patientRepository, times(1)).findByPid(TEST_PID);
+    }
+
+    @Test
+    void deletePatient_InvalidatesCachedPatient() {
+        when(patientRepository.findByPid(TEST_PID)).thenReturn(Optional.of(patient));
+        when(patientRepository.deleteByPid(TEST_PID, null)).thenReturn(Optional.of(PatientFacets.of(patient)));
+        patientService.getPatientByPID(TEST_PID);
+
+        patientService.deletePatient(TEST_PID, null);
+
+        verify(patientResponseCache).invalidate(TEST_PID);
+    }
+
+    @Test
+    void createPatients_Success() {
+        when(patientRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Patient> patients = invocation.getArgument(0);
+            for (int i = 0; i < patients.size(); i++) {
+                patients.get(i).setId((long) i + 1);
+            }
+            return patients;
+        });
+
+        BaseResponse<PatientBatchResponse> response = patientService.createPatients(List.of(patientRequest, patientRequest));
+
+        assertEquals(HttpStatus.CREATED.value(), response.getStatusCode());
+        assertEquals(2, response.getData().getSucceeded());
+        assertEquals(0, response.getData().getFailed());
+        assertTrue(response.getData().getResults().stream().allMatch(result -> result.getPid() != null));
+        verify(patientRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createPatients_ReportsInvalidItems() {
+        PatientRequest invalidPostcode = new PatientRequest();
+        BeanUtils.copyProperties(patientRequest, invalidPostcode);
+        invalidPostcode.setPostcode("3000");
+        PatientRequest missingName = new PatientRequest();
+        BeanUtils.copyProperties(patientRequest, missingName);
+        missingName.setFirstName(null);
+        PatientRequest malformedPostcode = new PatientRequest();
+        BeanUtils.copyProperties(patientRequest, malformedPostcode);
+        malformedPostcode.setPostcode("20O0");
+
+        when(patientRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BaseResponse<PatientBatchResponse> response =
+                patientService.createPatients(List.of(invalidPostcode, patientRequest, missingName, malformedPostcode));
+
+        PatientBatchResponse data = response.getData();
+        assertEquals(HttpStatus.MULTI_STATUS.value(), response.getStatusCode());
+        assertEquals(1, data.getSucceeded());
+        assertEquals(3, data.getFailed());
+        assertFalse(data.getResults().get(0).isSuccess());
+        assertEquals("Invalid postcode 3000 for state NSW", data.getResults().get(0).getError());
+        assertTrue(data.getResults().get(1).isSuccess());
+        assertEquals("First name and last name are required", data.getResults().get(2).getError());
+        assertEquals("Invalid postcode format", data.getResults().get(3).getError());
+    }
+
+    @Test
+    void createPatients_ChunkFailureMarksItemsFailed() {
+        when(patientRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database error"));
+
+        BaseResponse<PatientBatchResponse> response = patientService.createPatients(List.of(patientRequest));
+
+        assertEquals(HttpStatus.MULTI_STATUS.value(), response.getStatusCode());
+        assertEquals(1, response.getData().getFailed());
+        assertEquals("Error creating patient", response.getData().getResults().get(0).getError());
+    }
+
+    @Test
+    void createPatients_PersistsInChunks() {
+        when(patientRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        patientService.createPatients(new ArrayList<>(Collections.nCopies(1200, patientRequest)));
+
+        verify(patientRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void createPatients_RejectsOversizedBatch() {
+        BaseResponse<PatientBatchResponse> response =
+                patientService.createPatients(Collections.nCopies(5001, patientRequest));
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCode());
+        assertEquals("Batch size 5001 exceeds maximum of 5000", response.getMessage());
+        verify(patientRepository, never()).saveAll(anyList());
+    }
+
+    private static UpdatedPatient updated(Patient patient) {
+        return new UpdatedPatient(patient, PatientFacets.of(patient));
+    }
+}
@@ -0,0 +1,53 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.cache.PatientStatistics;
+import dev.dwidi.patientwebapp.dto.BaseResponse;
+import dev.dwidi.patientwebapp.dto.patient.PatientStatsResponse;
+import dev.dwidi.patientwebapp.monitoring.PatientMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientStatsServiceImplTest {
+
+    @Mock
+    private PatientStatistics patientStatistics;
+
+    @Spy
+    private PatientMetrics patientMetrics = new PatientMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private PatientStatsServiceImpl patientStatsService;
+
+    @Test
+    void getStats_Success() {
+        PatientStatsResponse stats = PatientStatsResponse.builder().total(42).build();
+        when(patientStatistics.stats()).thenReturn(stats);
+
+        BaseResponse<PatientStatsResponse> response = patientStatsService.getStats();
+
+        assertEquals(HttpStatus.OK.value(), response.getStatusCode());
+        assertSame(stats, response.getData());
+        verify(patientMetrics, never()).serviceError(any(), any());
+    }
+
+    @Test
+    void getStats_NotLoaded() {
+        when(patientStatistics.stats()).thenReturn(null);
+
+        BaseResponse<PatientStatsResponse> response = patientStatsService.getStats();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatusCode());
+        assertNull(response.getData());
+        verify(patientMetrics).serviceError("getStats", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
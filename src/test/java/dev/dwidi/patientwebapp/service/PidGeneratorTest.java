@@ -0,0 +1,101 @@
+package dev.dwidi.patientwebapp.service;
+
+import dev.dwidi.patientwebapp.exception.FailedGeneratePIDException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PidGeneratorTest {
+
+    @Test
+    void generate_ReturnsFixedWidthHex() {
+        String pid = new PidGenerator(0).generate();
+
+        assertEquals(16, pid.length());
+        assertTrue(pid.matches("[0-9a-f]{16}"));
+    }
+
+    @Test
+    void generate_IsMonotonicWithinSameMillisecond() {
+        PidGenerator generator = new PidGenerator(3, () -> PidGenerator.EPOCH + 1_000);
+
+        String previous = generator.generate();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.generate();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void generate_StaysMonotonicWhenClockMovesBackwards() {
+        AtomicLong clock = new AtomicLong(PidGenerator.EPOCH + 10_000);
+        PidGenerator generator = new PidGenerator(0, clock::get);
+
+        String beforeRewind = generator.generate();
+        clock.addAndGet(-5);
+        String afterRewind = generator.generate();
+
+        assertTrue(afterRewind.compareTo(beforeRewind) > 0);
+    }
+
+    @Test
+    void generate_FailsWhenClockIsFarBehindLastId() {
+        AtomicLong clock = new AtomicLong(PidGenerator.EPOCH + 60_000);
+        PidGenerator generator = new PidGenerator(0, clock::get);
+
+        generator.generate();
+        clock.addAndGet(-30_000);
+
+        assertThrows(FailedGeneratePIDException.class, generator::generate);
+    }
+
+    @Test
+    void generate_EncodesNodeId() {
+        long clock = PidGenerator.EPOCH + 1_000;
+
+        long first = new PidGenerator(1, () -> clock).nextId();
+        long second = new PidGenerator(2, () -> clock).nextId();
+
+        assertNotEquals(first, second);
+        assertEquals(1, (first >>> 12) & 0x3FF);
+        assertEquals(2, (second >>> 12) & 0x3FF);
+    }
+
+    @Test
+    void generate_IsUniqueUnderContention() throws Exception {
+        PidGenerator generator = new PidGenerator(0);
+        Set<String> pids = ConcurrentHashMap.newKeySet();
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        pids.add(generator.generate());
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertEquals(160_000, pids.size());
+    }
+
+    @Test
+    void constructor_RejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new PidGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new PidGenerator(-1));
+    }
+}